@@ -0,0 +1,31 @@
+package com.indigo.foundation.common.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 网关缓存失效通知自动配置
+ * 仅在发布方（Servlet 服务，如 iam-service、mdm-service）注册，网关只引用频道约定，不注册发布组件；
+ * 发布组件总是注册（业务服务按必需依赖注入），StringRedisTemplate 在发布时按需获取，不依赖自动配置的先后顺序
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@AutoConfiguration(after = RedisAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({StringRedisTemplate.class, TransactionSynchronizationManager.class})
+public class GatewayCacheAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GatewayCacheService gatewayCacheService(ObjectProvider<StringRedisTemplate> stringRedisTemplate) {
+        return new RedisGatewayCacheService(stringRedisTemplate);
+    }
+}
@@ -0,0 +1,39 @@
+package com.indigo.foundation.common.cache;
+
+/**
+ * 网关响应缓存失效通知
+ * 数据变更后向 Redis 频道发布失效标签，网关（ResponseCacheService）订阅后清除对应接口的响应缓存
+ * 频道和标签是 iam-service、mdm-service 与 gateway-service 之间的约定，统一在此定义
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface GatewayCacheService {
+
+    /**
+     * 失效事件频道
+     */
+    String EVICT_CHANNEL = "synapse:gateway:cache:evict";
+
+    /**
+     * 系统数据失效标签（iam-service）
+     */
+    String TAG_SYSTEM = "iam:system";
+
+    /**
+     * 国家数据失效标签（mdm-service）
+     */
+    String TAG_COUNTRY = "mdm:country";
+
+    /**
+     * 语言数据失效标签（mdm-service）
+     */
+    String TAG_LANGUAGE = "mdm:language";
+
+    /**
+     * 发布缓存失效事件，存在事务时在事务提交后发布
+     *
+     * @param tag 失效标签
+     */
+    void evict(String tag);
+}
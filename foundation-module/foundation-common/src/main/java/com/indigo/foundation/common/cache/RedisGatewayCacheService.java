@@ -0,0 +1,51 @@
+package com.indigo.foundation.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 基于 Redis 发布订阅的网关缓存失效通知
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+class RedisGatewayCacheService implements GatewayCacheService {
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    RedisGatewayCacheService(ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void evict(String tag) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(tag);
+                }
+            });
+        } else {
+            publish(tag);
+        }
+    }
+
+    private void publish(String tag) {
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (template == null) {
+            log.warn("未配置 StringRedisTemplate，跳过网关缓存失效通知: tag={}", tag);
+            return;
+        }
+        try {
+            template.convertAndSend(EVICT_CHANNEL, tag);
+        } catch (Exception e) {
+            // 通知失败不影响业务，网关缓存按 TTL 过期
+            log.warn("发布网关缓存失效事件失败: tag={}", tag, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.indigo.foundation.common.query;
+
+import com.indigo.core.entity.dto.PageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 游标（keyset）分页查询参数，各分页查询 DTO 继承本类获得游标字段
+ * 按 (create_time, id) 倒序分页：首页不传游标，下一页传入上一页返回的 nextCreateTime 和 nextId（见 KeysetPageResult），
+ * 查询条件为 (create_time, id) &lt; (lastCreateTime, lastId)，不使用 OFFSET，深分页性能与首页一致；
+ * 游标分页固定按 create_time、id 倒序，忽略 pageNo 和 orderByList
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public abstract class KeysetPageQuery<T> extends PageDTO<T> {
+
+    /**
+     * 上一页最后一条记录的创建时间（上一页的 nextCreateTime）
+     */
+    private LocalDateTime lastCreateTime;
+
+    /**
+     * 上一页最后一条记录的ID（上一页的 nextId）
+     */
+    private String lastId;
+
+    /**
+     * 是否统计总数（默认统计），翻页时可关闭，关闭后 total 为 -1
+     */
+    @Builder.Default
+    private Boolean searchCount = true;
+}
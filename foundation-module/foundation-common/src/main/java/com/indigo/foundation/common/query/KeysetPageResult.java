@@ -0,0 +1,61 @@
+package com.indigo.foundation.common.query;
+
+import com.indigo.core.entity.vo.BaseVO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 游标（keyset）分页结果
+ * hasNext=true 时 nextCreateTime、nextId 为本页最后一条记录的游标，作为下一页的 lastCreateTime、lastId 传入；
+ * 没有下一页时游标为空
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageResult<V> {
+
+    /**
+     * 不统计总数时返回的 total
+     */
+    public static final long TOTAL_NOT_COUNTED = -1L;
+
+    private List<V> records;
+
+    /**
+     * 总数，未统计时为 -1
+     */
+    private long total;
+
+    private long size;
+
+    private boolean hasNext;
+
+    private LocalDateTime nextCreateTime;
+
+    private String nextId;
+
+    /**
+     * 按本页记录构建结果
+     *
+     * @param records 本页记录（不超过 size 条）
+     * @param total   总数
+     * @param size    每页条数
+     * @param hasNext 是否还有下一页
+     * @return 分页结果
+     */
+    public static <V extends BaseVO<String>> KeysetPageResult<V> of(List<V> records, long total, long size,
+                                                                    boolean hasNext) {
+        if (!hasNext || records.isEmpty()) {
+            return new KeysetPageResult<>(records, total, size, false, null, null);
+        }
+        V last = records.get(records.size() - 1);
+        return new KeysetPageResult<>(records, total, size, true, last.getCreateTime(), last.getId());
+    }
+}
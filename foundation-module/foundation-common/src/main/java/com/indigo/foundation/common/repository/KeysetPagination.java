@@ -0,0 +1,72 @@
+package com.indigo.foundation.common.repository;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.indigo.core.entity.vo.BaseVO;
+import com.indigo.databases.utils.VoMapper;
+import com.indigo.foundation.common.query.KeysetPageQuery;
+import com.indigo.foundation.common.query.KeysetPageResult;
+
+import java.util.List;
+
+/**
+ * 游标（keyset）分页
+ * 按 (create_time, id) 倒序，以上一页最后一条记录为游标查询下一页，不使用 OFFSET；
+ * 查询条件取自 DTO 上的 @QueryCondition（见 QueryConditions），需要 (deleted, create_time, id) 索引
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public final class KeysetPagination {
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * 游标分页查询
+     *
+     * @param repository 仓储
+     * @param query      查询参数（@QueryCondition 条件 + 游标）
+     * @param pageSize   每页条数
+     * @param voClass    VO 类型
+     * @return 分页结果（含下一页游标，未统计总数时 total 为 -1）
+     */
+    public static <E, V extends BaseVO<String>> KeysetPageResult<V> page(IService<E> repository,
+                                                                        KeysetPageQuery<?> query, long pageSize,
+                                                                        Class<V> voClass) {
+        long total = KeysetPageResult.TOTAL_NOT_COUNTED;
+        if (!Boolean.FALSE.equals(query.getSearchCount())) {
+            total = repository.count(QueryConditions.of(query));
+        }
+
+        QueryWrapper<E> wrapper = QueryConditions.of(query);
+        seek(wrapper, query, "create_time", "id");
+        // 多取一条判断是否有下一页
+        Page<E> page = repository.page(new Page<>(1, pageSize + 1, false), wrapper);
+
+        List<V> records = page.getRecords().stream()
+                .limit(pageSize)
+                .map(entity -> VoMapper.mapToVo(entity, voClass))
+                .toList();
+        return KeysetPageResult.of(records, total, pageSize, page.getRecords().size() > pageSize);
+    }
+
+    /**
+     * 追加游标条件和排序：(createTimeColumn, idColumn) &lt; (lastCreateTime, lastId)，按两列倒序
+     *
+     * @param wrapper          查询条件
+     * @param query            游标参数
+     * @param createTimeColumn 创建时间列（含表别名）
+     * @param idColumn         主键列（含表别名）
+     */
+    public static <E> void seek(QueryWrapper<E> wrapper, KeysetPageQuery<?> query,
+                                String createTimeColumn, String idColumn) {
+        if (query.getLastCreateTime() != null && StrUtil.isNotBlank(query.getLastId())) {
+            wrapper.and(w -> w.lt(createTimeColumn, query.getLastCreateTime())
+                    .or(o -> o.eq(createTimeColumn, query.getLastCreateTime()).lt(idColumn, query.getLastId())));
+        }
+        wrapper.orderByDesc(createTimeColumn, idColumn);
+    }
+}
@@ -0,0 +1,132 @@
+package com.indigo.foundation.common.repository;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.indigo.core.annotation.QueryCondition;
+import com.indigo.core.constants.StandardErrorCode;
+import com.indigo.core.exception.Ex;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 按 DTO 字段上的 @QueryCondition 构建 QueryWrapper
+ * 条件语义与 pageWithCondition / listWithDTO 一致，供游标分页、流式导出等手写查询复用
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public final class QueryConditions {
+
+    private QueryConditions() {
+    }
+
+    /**
+     * 构建查询条件（空值字段不参与查询）
+     *
+     * @param query 查询 DTO
+     * @return 查询条件包装器
+     */
+    public static <E> QueryWrapper<E> of(Object query) {
+        QueryWrapper<E> wrapper = new QueryWrapper<>();
+        for (Class<?> type = query.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                QueryCondition condition = field.getAnnotation(QueryCondition.class);
+                if (condition == null) {
+                    continue;
+                }
+                Object value = read(field, query);
+                if (isEmpty(value)) {
+                    continue;
+                }
+                String column = StrUtil.isNotBlank(condition.field())
+                        ? condition.field() : StrUtil.toUnderlineCase(field.getName());
+                apply(wrapper, condition.type(), column, value, field);
+            }
+        }
+        return wrapper;
+    }
+
+    private static <E> void apply(QueryWrapper<E> wrapper, QueryCondition.QueryType type, String column,
+                                  Object value, Field field) {
+        switch (type) {
+            case EQ -> wrapper.eq(column, value);
+            case LIKE -> wrapper.like(column, value);
+            case LIKE_LEFT -> wrapper.likeLeft(column, value);
+            case LIKE_RIGHT -> wrapper.likeRight(column, value);
+            case GE -> wrapper.ge(column, value);
+            case LE -> wrapper.le(column, value);
+            case IN -> wrapper.in(column, values(value));
+            case NOT_IN -> wrapper.notIn(column, values(value));
+            case BETWEEN -> {
+                List<?> range = values(value);
+                if (range.size() != 2) {
+                    Ex.throwEx(StandardErrorCode.OPERATION_NOT_ALLOWED, "范围查询需要传入起止两个值: " + field.getName());
+                }
+                // 只传一端时退化为单边条件
+                if (range.get(0) != null) {
+                    wrapper.ge(column, range.get(0));
+                }
+                if (range.get(1) != null) {
+                    wrapper.le(column, range.get(1));
+                }
+            }
+            case IS_NULL -> {
+                if (Boolean.TRUE.equals(value)) {
+                    wrapper.isNull(column);
+                }
+            }
+            case IS_NOT_NULL -> {
+                if (Boolean.TRUE.equals(value)) {
+                    wrapper.isNotNull(column);
+                }
+            }
+            default -> Ex.throwEx(StandardErrorCode.OPERATION_NOT_ALLOWED,
+                    "不支持的查询条件: " + type + " (" + field.getName() + ")");
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value == null) {
+            return true;
+        }
+        if (value instanceof CharSequence text) {
+            return StrUtil.isBlank(text);
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.isEmpty();
+        }
+        return value.getClass().isArray() && Array.getLength(value) == 0;
+    }
+
+    /**
+     * 集合或数组参数统一转为 List
+     */
+    private static List<?> values(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object[] items = new Object[length];
+            for (int i = 0; i < length; i++) {
+                items[i] = Array.get(value, i);
+            }
+            return Arrays.asList(items);
+        }
+        return List.of(value);
+    }
+
+    private static Object read(Field field, Object target) {
+        try {
+            field.setAccessible(true);
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.indigo.foundation.common.repository;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.indigo.core.entity.vo.BaseVO;
+import com.indigo.foundation.common.query.KeysetPageQuery;
+import com.indigo.foundation.common.query.KeysetPageResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * KeysetPagination 游标条件与 KeysetPageResult 下一页游标
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class KeysetPaginationTest {
+
+    private static final LocalDateTime LAST_CREATE_TIME = LocalDateTime.of(2025, 12, 1, 8, 30);
+
+    @Test
+    void firstPageOnlyOrdersByCreateTimeAndId() {
+        QueryWrapper<Object> wrapper = new QueryWrapper<>();
+
+        KeysetPagination.seek(wrapper, new ItemQuery(), "t.create_time", "t.id");
+
+        String sql = wrapper.getSqlSegment();
+        assertThat(sql).doesNotContain("<");
+        assertThat(sql).containsIgnoringCase("ORDER BY t.create_time DESC,t.id DESC");
+        assertThat(wrapper.getParamNameValuePairs()).isEmpty();
+    }
+
+    @Test
+    void nextPageSeeksBelowCursorWithIdTieBreak() {
+        ItemQuery query = new ItemQuery();
+        query.setLastCreateTime(LAST_CREATE_TIME);
+        query.setLastId("42");
+        QueryWrapper<Object> wrapper = new QueryWrapper<>();
+
+        KeysetPagination.seek(wrapper, query, "create_time", "id");
+
+        String sql = wrapper.getSqlSegment().replaceAll("#\\{[^}]+}", "?");
+        assertThat(sql).containsIgnoringCase("(create_time < ? OR (create_time = ? AND id < ?))");
+        assertThat(sql).containsIgnoringCase("ORDER BY create_time DESC,id DESC");
+        assertThat(wrapper.getParamNameValuePairs().values())
+                .containsExactlyInAnyOrder(LAST_CREATE_TIME, LAST_CREATE_TIME, "42");
+    }
+
+    @Test
+    void incompleteCursorIsIgnored() {
+        ItemQuery query = new ItemQuery();
+        query.setLastCreateTime(LAST_CREATE_TIME);
+        QueryWrapper<Object> wrapper = new QueryWrapper<>();
+
+        KeysetPagination.seek(wrapper, query, "create_time", "id");
+
+        assertThat(wrapper.getParamNameValuePairs()).isEmpty();
+    }
+
+    @Test
+    void resultCarriesCursorOfLastRecordWhenMorePagesExist() {
+        List<ItemVO> records = List.of(item("2", LAST_CREATE_TIME.plusMinutes(1)), item("1", LAST_CREATE_TIME));
+
+        KeysetPageResult<ItemVO> result = KeysetPageResult.of(records, 10, 2, true);
+
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getNextCreateTime()).isEqualTo(LAST_CREATE_TIME);
+        assertThat(result.getNextId()).isEqualTo("1");
+        assertThat(result.getTotal()).isEqualTo(10);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        KeysetPageResult<ItemVO> result = KeysetPageResult.of(List.of(item("1", LAST_CREATE_TIME)),
+                KeysetPageResult.TOTAL_NOT_COUNTED, 2, false);
+
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCreateTime()).isNull();
+        assertThat(result.getNextId()).isNull();
+        assertThat(result.getTotal()).isEqualTo(-1);
+    }
+
+    private static ItemVO item(String id, LocalDateTime createTime) {
+        ItemVO item = new ItemVO();
+        item.setId(id);
+        item.setCreateTime(createTime);
+        return item;
+    }
+
+    static class ItemQuery extends KeysetPageQuery<String> {
+    }
+
+    static class ItemVO extends BaseVO<String> {
+    }
+}
@@ -0,0 +1,40 @@
+package com.indigo.iam.sdk.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 第三方平台 API Key 请求DTO
+ * 创建时使用 name/expireTime/description，校验时只使用 apiKey
+ *
+ * @author 史偕成
+ * @date 2025/12/01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyDTO {
+
+    /**
+     * API Key 明文（校验时必填）
+     */
+    private String apiKey;
+
+    /**
+     * 第三方平台名称（创建时必填）
+     */
+    private String name;
+
+    /**
+     * 过期时间，为空表示永不过期
+     */
+    private LocalDateTime expireTime;
+
+    /**
+     * 描述
+     */
+    private String description;
+}
@@ -30,4 +30,6 @@ public class AddOrModifyUserDTO extends BaseDTO<String> {
     private String avatar;
 
     private Boolean enabled;
+
+    private Boolean locked;
 }
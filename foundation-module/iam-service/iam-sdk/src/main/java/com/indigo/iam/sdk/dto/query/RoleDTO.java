@@ -1,7 +1,7 @@
 package com.indigo.iam.sdk.dto.query;
 
 import com.indigo.core.annotation.QueryCondition;
-import com.indigo.core.entity.dto.PageDTO;
+import com.indigo.foundation.common.query.KeysetPageQuery;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -19,7 +19,7 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @SuperBuilder
 @Accessors(chain = true)
-public class RoleDTO extends PageDTO<String> {
+public class RoleDTO extends KeysetPageQuery<String> {
 
     @QueryCondition(field = "code", type = QueryCondition.QueryType.LIKE)
     private String code;
@@ -2,6 +2,7 @@ package com.indigo.iam.sdk.dto.query;
 
 import com.indigo.core.annotation.QueryCondition;
 import com.indigo.core.entity.dto.PageDTO;
+import com.indigo.foundation.common.query.KeysetPageQuery;
 import lombok.*;
 import lombok.experimental.Accessors;
 import lombok.experimental.SuperBuilder;
@@ -9,7 +10,7 @@ import lombok.experimental.SuperBuilder;
 /**
  * 用户查询DTO
  * 
- * <p>继承 {@link PageDTO} 获得分页功能。
+ * <p>继承 {@link KeysetPageQuery}（{@link PageDTO} 子类）获得分页和游标分页功能。
  * 如果不需要分页，分页字段有默认值（pageNo=1, pageSize=10），不影响查询结果。</p>
  * 
  * @author 史偕成
@@ -23,7 +24,7 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Accessors(chain = true)
-public class UsersDTO extends PageDTO<String> {
+public class UsersDTO extends KeysetPageQuery<String> {
 
     @QueryCondition(field = "account", type = QueryCondition.QueryType.LIKE)
     private String account;
@@ -0,0 +1,35 @@
+package com.indigo.iam.sdk.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 导出文件格式
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    /**
+     * CSV（UTF-8 带 BOM，首行为表头）
+     */
+    CSV("text/csv;charset=UTF-8", "csv"),
+
+    /**
+     * NDJSON（每行一个 JSON 对象）
+     */
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson"),
+    ;
+
+    /**
+     * 响应 Content-Type
+     */
+    private final String contentType;
+
+    /**
+     * 文件扩展名
+     */
+    private final String extension;
+}
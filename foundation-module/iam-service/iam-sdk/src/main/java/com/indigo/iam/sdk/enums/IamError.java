@@ -99,6 +99,26 @@ public enum IamError implements ErrorCode {
      */
     RESOURCE_IDS_EMPTY("IAM025"),
 
+    /**
+     * API Key 不存在
+     */
+    API_KEY_NOT_EXIST("IAM026"),
+
+    /**
+     * 登录请求过多（密码校验队列已满）
+     */
+    LOGIN_BUSY("IAM027"),
+
+    /**
+     * 登录失败次数过多，暂时禁止登录
+     */
+    LOGIN_ATTEMPTS_EXCEEDED("IAM028"),
+
+    /**
+     * 导入文件格式错误（缺少表头或超过最大行数）
+     */
+    USER_IMPORT_FILE_INVALID("IAM029"),
+
     ;
     private final String code;
 
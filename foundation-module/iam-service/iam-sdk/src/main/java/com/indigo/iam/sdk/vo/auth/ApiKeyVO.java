@@ -0,0 +1,40 @@
+package com.indigo.iam.sdk.vo.auth;
+
+import com.indigo.core.entity.vo.BaseVO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 第三方平台 API Key VO
+ * 校验接口只返回平台身份信息，不返回 Key 本身
+ *
+ * @author 史偕成
+ * @date 2025/12/01
+ **/
+@EqualsAndHashCode(callSuper = true)
+@Data
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class ApiKeyVO extends BaseVO<String> {
+
+    private String name;
+
+    private Boolean enabled;
+
+    private LocalDateTime expireTime;
+
+    private String description;
+
+    /**
+     * API Key 明文，仅在创建时返回一次
+     */
+    private String apiKey;
+}
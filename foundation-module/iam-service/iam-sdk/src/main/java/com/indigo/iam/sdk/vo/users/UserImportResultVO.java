@@ -0,0 +1,67 @@
+package com.indigo.iam.sdk.vo.users;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户批量导入结果
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResultVO {
+
+    /**
+     * 数据行数（不含表头）
+     */
+    private long total;
+
+    /**
+     * 导入成功行数
+     */
+    private long imported;
+
+    /**
+     * 导入失败行数
+     */
+    private long failed;
+
+    /**
+     * 失败明细
+     */
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 行级错误
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+
+        /**
+         * 行号（表头为第 1 行）
+         */
+        private long line;
+
+        /**
+         * 账号
+         */
+        private String account;
+
+        /**
+         * 失败原因
+         */
+        private String message;
+    }
+}
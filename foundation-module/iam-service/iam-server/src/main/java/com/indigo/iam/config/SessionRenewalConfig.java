@@ -0,0 +1,44 @@
+package com.indigo.iam.config;
+
+import com.indigo.iam.service.SessionRenewalService;
+import com.indigo.security.utils.TokenExtractor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 会话续期配置
+ * 已登录请求只记录 token，由 SessionRenewalService 在后台批量续期
+ * （替代 synapse.security.token.enable-sliding-expiration 的请求内同步续期，两者不应同时开启）
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "synapse.iam.session-renewal", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SessionRenewalConfig implements WebMvcConfigurer {
+
+    private final SessionRenewalService sessionRenewalService;
+    private final TokenExtractor tokenExtractor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String token = tokenExtractor.extractToken(request);
+                if (StringUtils.hasText(token)) {
+                    sessionRenewalService.touch(token);
+                }
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.indigo.iam.controller;
+
+import com.indigo.core.entity.Result;
+import com.indigo.iam.sdk.dto.auth.ApiKeyDTO;
+import com.indigo.iam.sdk.vo.auth.ApiKeyVO;
+import com.indigo.iam.service.ApiKeyService;
+import com.indigo.security.annotation.RequirePermission;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 第三方平台 API Key 控制器
+ * 创建、删除需要 apiKey:add、apiKey:delete 权限（仅分配给管理员角色）；
+ * /validate 仅供 Gateway 内部调用，Gateway 对外屏蔽该路径（见 gateway 路由 iam-internal-deny）
+ *
+ * @author 史偕成
+ * @date 2025/12/01
+ **/
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/apiKey")
+public class ApiKeyController {
+
+    private final ApiKeyService apiKeyService;
+
+    /**
+     * 创建 API Key（明文只返回一次）
+     *
+     * @param param 参数
+     * @return API Key 信息
+     */
+    @PostMapping("/add")
+    @RequirePermission(value = {"apiKey:add"})
+    public Result<ApiKeyVO> add(@RequestBody ApiKeyDTO param) {
+        return Result.success(apiKeyService.createApiKey(param));
+    }
+
+    /**
+     * 删除 API Key
+     *
+     * @param id API Key ID
+     * @return 删除结果
+     */
+    @DeleteMapping("/delete/{id}")
+    @RequirePermission(value = {"apiKey:delete"})
+    public Result<Boolean> remove(@PathVariable String id) {
+        return Result.success(apiKeyService.deleteApiKey(id));
+    }
+
+    /**
+     * 校验 API Key
+     * 仅由 Gateway 内部调用（lb://iam-service），外部请求在 Gateway 被拒绝，无效时 data 为空
+     *
+     * @param param 参数（apiKey）
+     * @return 平台信息
+     */
+    @PostMapping("/validate")
+    public Result<ApiKeyVO> validate(@RequestBody ApiKeyDTO param) {
+        return Result.success(apiKeyService.validate(param.getApiKey()));
+    }
+}
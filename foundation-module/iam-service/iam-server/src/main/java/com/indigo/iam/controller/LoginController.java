@@ -2,11 +2,13 @@ package com.indigo.iam.controller;
 
 import com.indigo.core.entity.Result;
 import com.indigo.iam.sdk.dto.auth.LoginDTO;
+import com.indigo.iam.sdk.enums.IamError;
 import com.indigo.iam.sdk.vo.auth.LoginResponseVO;
 import com.indigo.iam.sdk.vo.resource.MenuVO;
 import com.indigo.iam.sdk.vo.resource.ResourceVO;
 import com.indigo.iam.sdk.vo.resource.SystemVO;
 import com.indigo.iam.service.LoginService;
+import com.indigo.iam.service.MenuTreeDigestService;
 import com.indigo.security.annotation.RequireLogin;
 import com.indigo.security.core.AuthenticationService;
 import com.indigo.security.core.TokenService;
@@ -15,9 +17,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 登录控制器
@@ -36,17 +43,19 @@ public class LoginController {
     private final AuthenticationService authenticationService;
     private final TokenService tokenService;
     private final TokenExtractor tokenExtractor;
+    private final MenuTreeDigestService menuTreeDigestService;
 
     /**
      * 用户登录
      *
-     * @param dto 登录请求
+     * @param dto     登录请求
+     * @param request HTTP 请求
      * @return 登录响应（包含 Token）
      */
     @PostMapping("/login")
-    public Result<LoginResponseVO> login(@RequestBody @Valid LoginDTO dto) {
+    public Result<LoginResponseVO> login(@RequestBody @Valid LoginDTO dto, HttpServletRequest request) {
         log.info("用户登录请求: username={}", dto.getUsername());
-        return Result.success(loginService.login(dto));
+        return Result.success(loginService.login(dto, getClientIp(request)));
     }
 
     /**
@@ -119,18 +128,38 @@ public class LoginController {
      * 获取用户系统菜单树列表
      * 根据 Token 从缓存中获取用户有权限的系统菜单树列表
      * 也可以通过 UserContext.getCurrentSystemMenuTree() 获取
+     * 携带的 If-None-Match 与会话菜单树摘要一致时返回 304，不读取菜单树
      *
-     * @param request HTTP 请求
+     * @param request    HTTP 请求
+     * @param webRequest 条件请求判断
      * @return 系统菜单树列表
      */
     @GetMapping("/systemMenuTree")
     @RequireLogin
-    public Result<List<com.indigo.iam.sdk.vo.resource.SystemMenuTreeVO>> getSystemMenuTree(HttpServletRequest request) {
+    public Result<List<com.indigo.iam.sdk.vo.resource.SystemMenuTreeVO>> getSystemMenuTree(HttpServletRequest request,
+                                                                                            WebRequest webRequest) {
         String token = getTokenFromRequest(request);
+        String etag = menuTreeDigestService.menuTreeEtag(token).orElse(null);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         log.debug("获取用户系统菜单树列表: token={}", token);
         return authenticationService.getUserSystemMenuTree(token, com.indigo.iam.sdk.vo.resource.SystemMenuTreeVO.class);
     }
 
+    /**
+     * 密码校验排队已满时返回 429，客户端稍后重试
+     *
+     * @param e 拒绝异常
+     * @return 429 响应
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Result<Void>> loginBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Result.error(IamError.LOGIN_BUSY));
+    }
+
     /**
      * 从请求中获取 token
      * 使用 TokenExtractor 工具类统一提取
@@ -141,5 +170,20 @@ public class LoginController {
     private String getTokenFromRequest(HttpServletRequest request) {
         return tokenExtractor.extractToken(request);
     }
+
+    /**
+     * 获取客户端 IP
+     * 经网关转发时取 X-Forwarded-For 的最后一个地址（网关追加的对端地址，客户端自带的值不可信）
+     *
+     * @param request HTTP 请求
+     * @return 客户端 IP
+     */
+    private String getClientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        }
+        return request.getRemoteAddr();
+    }
 }
 
@@ -3,16 +3,21 @@ package com.indigo.iam.controller;
 import com.indigo.core.context.UserContext;
 import com.indigo.core.entity.Result;
 import com.indigo.core.entity.result.PageResult;
+import com.indigo.foundation.common.query.KeysetPageResult;
 import com.indigo.iam.repository.service.IResourceService;
 import com.indigo.iam.sdk.dto.opera.AddOrModifyResourceDTO;
 import com.indigo.iam.sdk.dto.query.ResourceDTO;
+import com.indigo.iam.sdk.enums.ExportFormat;
 import com.indigo.iam.sdk.vo.resource.ResourceDetailVO;
 import com.indigo.iam.sdk.vo.resource.ResourceVO;
 import com.indigo.iam.service.ResourceService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -75,6 +80,32 @@ public class ResourceController {
         return Result.success(iamResourceService.pageResourceDetail(param));
     }
 
+    /**
+     * 获取资源游标分页（下一页传入返回的 nextCreateTime、nextId）
+     *
+     * @param param 查询参数
+     * @return 资源分页结果
+     */
+    @PostMapping("/keysetPage")
+    public Result<KeysetPageResult<ResourceDetailVO>> keysetPage(@RequestBody ResourceDTO param) {
+        return Result.success(iamResourceService.keysetPageResourceDetail(param));
+    }
+
+    /**
+     * 流式导出资源详情（CSV / NDJSON），查询条件与 /page 一致
+     *
+     * @param param    查询参数
+     * @param format   导出格式，默认 CSV
+     * @param response HTTP 响应
+     */
+    @PostMapping("/export")
+    public void export(@RequestBody ResourceDTO param, @RequestParam(defaultValue = "CSV") ExportFormat format,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=resources." + format.getExtension());
+        iamResourceService.exportResourceDetail(param, format, response.getOutputStream());
+    }
+
     /**
      * 获取资源明细
      *
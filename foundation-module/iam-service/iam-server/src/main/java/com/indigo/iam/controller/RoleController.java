@@ -2,18 +2,25 @@ package com.indigo.iam.controller;
 
 import com.indigo.core.entity.Result;
 import com.indigo.core.entity.result.PageResult;
+import com.indigo.foundation.common.query.KeysetPageResult;
+import com.indigo.foundation.common.repository.KeysetPagination;
 import com.indigo.iam.repository.service.IRoleService;
 import com.indigo.iam.sdk.dto.associated.RoleMenuDTO;
 import com.indigo.iam.sdk.dto.associated.RolePermissionDTO;
 import com.indigo.iam.sdk.dto.associated.RoleResourceDTO;
 import com.indigo.iam.sdk.dto.opera.AddOrModifyRoleDTO;
 import com.indigo.iam.sdk.dto.query.RoleDTO;
+import com.indigo.iam.sdk.enums.ExportFormat;
 import com.indigo.iam.sdk.vo.resource.RolePermissionVO;
 import com.indigo.iam.sdk.vo.users.RoleVO;
+import com.indigo.iam.service.ExportService;
 import com.indigo.iam.service.RoleService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -27,6 +34,7 @@ public class RoleController {
 
     private final IRoleService iRoleService;
     private final RoleService roleService;
+    private final ExportService exportService;
 
     /**
      * 保存/修改用户
@@ -61,6 +69,17 @@ public class RoleController {
         return Result.success(iRoleService.pageWithCondition(params, RoleVO.class));
     }
 
+    /**
+     * 游标分页查询角色（下一页传入返回的 nextCreateTime、nextId）
+     *
+     * @param params
+     * @return
+     */
+    @PostMapping("/keysetPage")
+    public Result<KeysetPageResult<RoleVO>> keysetPage(@RequestBody RoleDTO params) {
+        return Result.success(KeysetPagination.page(iRoleService, params, params.getPageSize(), RoleVO.class));
+    }
+
     /**
      * 获取用户详情
      *
@@ -94,6 +113,21 @@ public class RoleController {
         return Result.success(iRoleService.listWithDTO(param, RoleVO.class));
     }
 
+    /**
+     * 流式导出角色（CSV / NDJSON），查询条件与 /list 一致
+     *
+     * @param param    查询参数
+     * @param format   导出格式，默认 CSV
+     * @param response HTTP 响应
+     */
+    @PostMapping("/export")
+    public void export(@RequestBody RoleDTO param, @RequestParam(defaultValue = "CSV") ExportFormat format,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=roles." + format.getExtension());
+        exportService.exportRoles(param, format, response.getOutputStream());
+    }
+
 
     /**
      * 角色分配菜单
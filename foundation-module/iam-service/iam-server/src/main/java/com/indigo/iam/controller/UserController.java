@@ -3,24 +3,38 @@ package com.indigo.iam.controller;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.indigo.core.entity.Result;
 import com.indigo.core.entity.result.PageResult;
+import com.indigo.foundation.common.query.KeysetPageResult;
+import com.indigo.foundation.common.repository.KeysetPagination;
 import com.indigo.iam.repository.entity.UsersRole;
 import com.indigo.iam.repository.service.IUsersRoleService;
 import com.indigo.iam.repository.service.IUsersService;
 import com.indigo.iam.sdk.dto.associated.EmpowerDTO;
 import com.indigo.iam.sdk.dto.opera.AddOrModifyUserDTO;
 import com.indigo.iam.sdk.dto.query.UsersDTO;
+import com.indigo.iam.sdk.enums.ExportFormat;
 import com.indigo.iam.sdk.vo.resource.SystemMenuTreeVO;
+import com.indigo.iam.sdk.vo.users.UserImportResultVO;
 import com.indigo.iam.sdk.vo.users.UserInfoVO;
 import com.indigo.iam.sdk.vo.users.UserVO;
+import com.indigo.iam.service.ExportService;
+import com.indigo.iam.service.MenuTreeDigestService;
+import com.indigo.iam.service.UserImportService;
 import com.indigo.iam.service.UserService;
 import com.indigo.security.annotation.RequireLogin;
 import com.indigo.security.core.AuthenticationService;
 import com.indigo.security.utils.TokenExtractor;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 
@@ -41,6 +55,9 @@ public class UserController {
     private final AuthenticationService authenticationService;
     private final TokenExtractor tokenExtractor;
     private final IUsersRoleService iUsersRoleService;
+    private final ExportService exportService;
+    private final UserImportService userImportService;
+    private final MenuTreeDigestService menuTreeDigestService;
 
     /**
      * 保存/修改用户
@@ -64,6 +81,17 @@ public class UserController {
         return Result.success(iUsersService.pageWithCondition(params, UserVO.class));
     }
 
+    /**
+     * 游标分页查询用户（下一页传入返回的 nextCreateTime、nextId）
+     *
+     * @param params
+     * @return
+     */
+    @PostMapping("/keysetPage")
+    public Result<KeysetPageResult<UserVO>> keysetPageUsers(@RequestBody UsersDTO params) {
+        return Result.success(KeysetPagination.page(iUsersService, params, params.getPageSize(), UserVO.class));
+    }
+
     /**
      * 获取用户详情
      *
@@ -97,6 +125,35 @@ public class UserController {
         return Result.success(iUsersService.listWithDTO(param, UserVO.class));
     }
 
+    /**
+     * 流式导出用户（CSV / NDJSON），查询条件与 /list 一致
+     *
+     * @param param    查询参数
+     * @param format   导出格式，默认 CSV
+     * @param response HTTP 响应
+     */
+    @PostMapping("/export")
+    public void export(@RequestBody UsersDTO param, @RequestParam(defaultValue = "CSV") ExportFormat format,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + format.getExtension());
+        exportService.exportUsers(param, format, response.getOutputStream());
+    }
+
+    /**
+     * 批量导入用户（CSV，表头：account、realName、email、mobile、type、password）
+     * 单行失败不影响其他行，失败原因按行返回
+     *
+     * @param file CSV 文件
+     * @return 导入结果
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Result<UserImportResultVO> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return Result.success(userImportService.importUsers(in));
+        }
+    }
+
 
     /**
      * 给用户添加角色
@@ -112,19 +169,26 @@ public class UserController {
     /**
      * 获取当前登录用户信息
      * 包含用户基本信息和权限数据（从缓存中获取）
+     * 携带的 If-None-Match 与会话菜单树摘要一致时返回 304，不读取菜单树和权限
      *
-     * @param request HTTP 请求
+     * @param request    HTTP 请求
+     * @param webRequest 条件请求判断
      * @return 用户信息
      */
     @GetMapping("/info")
     @RequireLogin
-    public Result<UserInfoVO> getUserInfo(HttpServletRequest request) {
+    public Result<UserInfoVO> getUserInfo(HttpServletRequest request, WebRequest webRequest) {
         // 从请求中获取 token
         String token = tokenExtractor.extractToken(request);
         if (token == null || token.trim().isEmpty()) {
             return Result.error("Token 不能为空");
         }
 
+        String etag = menuTreeDigestService.userInfoEtag(token).orElse(null);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         // 调用 AuthenticationService 获取用户信息
         return authenticationService.getUserInfo(token, (userContext, permissions, systemMenuTree) -> {
             // 安全地转换系统菜单树类型
@@ -0,0 +1,58 @@
+package com.indigo.iam.repository.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.indigo.databases.entity.AuditEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 第三方平台 API Key
+ * 只保存 Key 的 SHA-256 摘要，明文仅在创建时返回一次
+ *
+ * @author 史偕成
+ * @date 2025/12/01
+ **/
+@EqualsAndHashCode(callSuper = true)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+@SuperBuilder
+@TableName(value = "iam_api_key")
+public class ApiKey extends AuditEntity<String> {
+
+    /**
+     * 第三方平台名称
+     */
+    private String name;
+
+    /**
+     * API Key 摘要（SHA-256 十六进制）
+     */
+    private String keyHash;
+
+    /**
+     * 启用状态
+     * 插入时跳过该字段，使用数据库默认值 1
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NOT_NULL)
+    private Boolean enabled;
+
+    /**
+     * 过期时间，为空表示永不过期
+     */
+    private LocalDateTime expireTime;
+
+    /**
+     * 描述
+     */
+    private String description;
+}
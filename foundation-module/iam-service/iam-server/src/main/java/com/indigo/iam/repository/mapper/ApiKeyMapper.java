@@ -0,0 +1,12 @@
+package com.indigo.iam.repository.mapper;
+
+import com.indigo.databases.mapper.EnhancedVoMapper;
+import com.indigo.iam.repository.entity.ApiKey;
+import com.indigo.iam.sdk.vo.auth.ApiKeyVO;
+
+/**
+ * @author 史偕成
+ * @date 2025/12/01
+ **/
+public interface ApiKeyMapper extends EnhancedVoMapper<ApiKey, ApiKeyVO> {
+}
@@ -7,8 +7,11 @@ import com.indigo.iam.repository.entity.IamResource;
 import com.indigo.iam.sdk.dto.query.ResourceDTO;
 import com.indigo.iam.sdk.vo.resource.ResourceDetailVO;
 import com.indigo.iam.sdk.vo.resource.ResourceVO;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.util.List;
 
@@ -77,5 +80,101 @@ public interface ResourceMapper extends EnhancedVoMapper<IamResource, ResourceVO
         ${ew.customSqlSegment}
         """)
     Page<ResourceDetailVO> selectResourceDetailPage(Page<ResourceDetailVO> page, @Param("ew") QueryWrapper<IamResource> ew);
-}
 
+    /**
+     * 流式查询资源详情（导出用，联查菜单和系统）
+     * 逐行读取结果集（fetchSize = Integer.MIN_VALUE），需在事务内消费游标
+     *
+     * @param ew 查询条件包装器
+     * @return 资源详情游标
+     */
+    @Select("""
+        SELECT
+            res.id,
+            res.menu_id AS menuId,
+            res.code,
+            res.name,
+            res.type,
+            res.description,
+            res.permissions,
+            res.create_time AS createTime,
+            res.modify_time AS modifyTime,
+            menu.code AS menuCode,
+            menu.name AS menuName,
+            sys.code AS systemCode,
+            sys.name AS systemName
+        FROM iam_resources res
+        LEFT JOIN iam_menu menu ON res.menu_id = menu.id
+        LEFT JOIN iam_system sys ON menu.system_id = sys.id
+        ${ew.customSqlSegment}
+        """)
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<ResourceDetailVO> streamResourceDetail(@Param("ew") QueryWrapper<IamResource> ew);
+
+    /**
+     * 资源详情总数（仅资源表）
+     * 菜单、系统表按主键 LEFT JOIN，不影响行数；没有 sys.* 查询条件时使用，避免对联查结果计数
+     *
+     * @param ew 查询条件包装器（只含资源表 res.* 条件，不含排序）
+     * @return 总数
+     */
+    @Select("""
+        SELECT COUNT(*)
+        FROM iam_resources res
+        ${ew.customSqlSegment}
+        """)
+    long countResources(@Param("ew") QueryWrapper<IamResource> ew);
+
+    /**
+     * 资源详情总数（多表联查，有 sys.* 查询条件时使用）
+     *
+     * @param ew 查询条件包装器（不含排序）
+     * @return 总数
+     */
+    @Select("""
+        SELECT COUNT(*)
+        FROM iam_resources res
+        LEFT JOIN iam_menu menu ON res.menu_id = menu.id
+        LEFT JOIN iam_system sys ON menu.system_id = sys.id
+        ${ew.customSqlSegment}
+        """)
+    long countResourceDetail(@Param("ew") QueryWrapper<IamResource> ew);
+
+    /**
+     * 资源表估算行数（InnoDB 统计信息，含已软删数据，仅用于无条件查询的大表总数估算）
+     *
+     * @return 估算行数
+     */
+    @Select("""
+        SELECT TABLE_ROWS
+        FROM information_schema.TABLES
+        WHERE TABLE_SCHEMA = DATABASE()
+          AND TABLE_NAME = 'iam_resources'
+        """)
+    Long estimateResourceRows();
+
+    /**
+     * 资源表已创建的全文索引数（ft_code、ft_name、ft_permissions）
+     *
+     * @return 索引数
+     */
+    @Select("""
+        SELECT COUNT(DISTINCT INDEX_NAME)
+        FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = DATABASE()
+          AND TABLE_NAME = 'iam_resources'
+          AND INDEX_TYPE = 'FULLTEXT'
+          AND INDEX_NAME IN ('ft_code', 'ft_name', 'ft_permissions')
+        """)
+    int countFulltextIndexes();
+
+    /**
+     * 全文索引是否使用停用词（innodb_ft_enable_stopword=ON 且未配置自定义停用词表时为 true）
+     *
+     * @return 是否使用内置停用词
+     */
+    @Select("""
+        SELECT @@innodb_ft_enable_stopword = 1 AND @@innodb_ft_server_stopword_table IS NULL
+        """)
+    boolean fulltextStopwordEnabled();
+}
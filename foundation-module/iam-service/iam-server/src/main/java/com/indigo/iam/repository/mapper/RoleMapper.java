@@ -1,9 +1,14 @@
 package com.indigo.iam.repository.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.indigo.databases.mapper.EnhancedVoMapper;
 import com.indigo.iam.repository.entity.Roles;
 import com.indigo.iam.sdk.vo.users.RoleVO;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 /**
  * 角色Mapper
@@ -13,4 +18,24 @@ import com.indigo.iam.sdk.vo.users.RoleVO;
  * @date 2025/11/06 16:36
  **/
 public interface RoleMapper extends EnhancedVoMapper<Roles, RoleVO> {
+
+    /**
+     * 流式查询角色（导出用）
+     * 逐行读取结果集（fetchSize = Integer.MIN_VALUE），需在事务内消费游标
+     *
+     * @param ew 查询条件包装器
+     * @return 角色游标
+     */
+    @Select("""
+        SELECT
+            id,
+            code,
+            description,
+            status,
+            create_time
+        FROM iam_role
+        ${ew.customSqlSegment}
+        """)
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<RoleVO> streamRoles(@Param("ew") QueryWrapper<Roles> ew);
 }
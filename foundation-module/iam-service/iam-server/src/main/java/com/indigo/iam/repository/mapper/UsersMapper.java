@@ -1,9 +1,14 @@
 package com.indigo.iam.repository.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.indigo.databases.mapper.EnhancedVoMapper;
 import com.indigo.iam.repository.entity.Users;
 import com.indigo.iam.sdk.vo.users.UserVO;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 /**
  * @author 史偕成
@@ -11,4 +16,29 @@ import com.indigo.iam.sdk.vo.users.UserVO;
  **/
 public interface UsersMapper extends EnhancedVoMapper<Users, UserVO> {
 
+    /**
+     * 流式查询用户（导出用，不查询密码）
+     * 逐行读取结果集（fetchSize = Integer.MIN_VALUE），需在事务内消费游标
+     *
+     * @param ew 查询条件包装器
+     * @return 用户游标
+     */
+    @Select("""
+        SELECT
+            id,
+            account,
+            type,
+            enabled,
+            locked,
+            expired,
+            email,
+            mobile,
+            real_name,
+            avatar,
+            create_time
+        FROM iam_user
+        ${ew.customSqlSegment}
+        """)
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<UserVO> streamUsers(@Param("ew") QueryWrapper<Users> ew);
 }
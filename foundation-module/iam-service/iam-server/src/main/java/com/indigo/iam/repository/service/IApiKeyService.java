@@ -0,0 +1,16 @@
+package com.indigo.iam.repository.service;
+
+import com.indigo.databases.annotation.AutoRepository;
+import com.indigo.databases.annotation.IdeFriendlyRepository;
+import com.indigo.databases.repository.BaseRepository;
+import com.indigo.iam.repository.entity.ApiKey;
+import com.indigo.iam.repository.mapper.ApiKeyMapper;
+
+/**
+ * @author 史偕成
+ * @date 2025/12/01
+ **/
+@AutoRepository
+@IdeFriendlyRepository("iApiKeyService")
+public interface IApiKeyService extends BaseRepository<ApiKey, ApiKeyMapper> {
+}
@@ -0,0 +1,24 @@
+package com.indigo.iam.service;
+
+import java.util.Locale;
+
+/**
+ * 登录账号工具
+ * 账号唯一性和登录匹配不区分大小写（与数据库排序规则一致），缓存、失败计数等按规范化后的账号作为 key，
+ * 避免同一账号以不同大小写绕过计数或重复缓存
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+final class Accounts {
+
+    private Accounts() {
+    }
+
+    /**
+     * 规范化账号：去除首尾空白并转为小写（Locale.ROOT，不受服务器区域设置影响）
+     */
+    static String normalize(String account) {
+        return account == null ? "" : account.trim().toLowerCase(Locale.ROOT);
+    }
+}
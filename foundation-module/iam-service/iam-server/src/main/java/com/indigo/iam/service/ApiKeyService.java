@@ -0,0 +1,148 @@
+package com.indigo.iam.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.indigo.core.constants.StandardErrorCode;
+import com.indigo.core.exception.Ex;
+import com.indigo.iam.repository.entity.ApiKey;
+import com.indigo.iam.repository.service.IApiKeyService;
+import com.indigo.iam.sdk.dto.auth.ApiKeyDTO;
+import com.indigo.iam.sdk.vo.auth.ApiKeyVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static com.indigo.iam.sdk.enums.IamError.API_KEY_NOT_EXIST;
+
+/**
+ * 第三方平台 API Key 服务
+ * 供 Gateway 校验第三方平台请求携带的 API Key
+ *
+ * @author 史偕成
+ * @date 2025/12/01
+ **/
+public interface ApiKeyService {
+
+    /**
+     * 创建 API Key
+     * 明文只在本次返回，数据库中只保存摘要
+     *
+     * @param param 参数
+     * @return API Key 信息（包含明文）
+     */
+    ApiKeyVO createApiKey(ApiKeyDTO param);
+
+    /**
+     * 删除 API Key
+     *
+     * @param id API Key ID
+     * @return 删除结果
+     */
+    Boolean deleteApiKey(String id);
+
+    /**
+     * 校验 API Key
+     *
+     * @param apiKey API Key 明文
+     * @return 有效时返回平台信息，无效（不存在、停用、过期）时返回 null
+     */
+    ApiKeyVO validate(String apiKey);
+}
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+class ApiKeyServiceImpl implements ApiKeyService {
+
+    /**
+     * 明文 Key 的随机字节数（Base64URL 编码后 43 个字符）
+     */
+    private static final int KEY_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final IApiKeyService iApiKeyService;
+
+    @Override
+    public ApiKeyVO createApiKey(ApiKeyDTO param) {
+        if (!StringUtils.hasText(param.getName())) {
+            Ex.throwEx(StandardErrorCode.OPERATION_NOT_ALLOWED, "第三方平台名称不能为空");
+        }
+        byte[] bytes = new byte[KEY_BYTES];
+        RANDOM.nextBytes(bytes);
+        String plainKey = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        ApiKey apiKey = ApiKey.builder()
+                .name(param.getName())
+                .keyHash(digest(plainKey))
+                .expireTime(param.getExpireTime())
+                .description(param.getDescription())
+                .build();
+        iApiKeyService.save(apiKey);
+        log.info("创建第三方平台 API Key: id={}, name={}", apiKey.getId(), apiKey.getName());
+
+        return ApiKeyVO.builder()
+                .id(apiKey.getId())
+                .name(apiKey.getName())
+                .enabled(true)
+                .expireTime(apiKey.getExpireTime())
+                .description(apiKey.getDescription())
+                .apiKey(plainKey)
+                .build();
+    }
+
+    @Override
+    public Boolean deleteApiKey(String id) {
+        ApiKey apiKey = iApiKeyService.getById(id);
+        if (apiKey == null) {
+            Ex.throwEx(API_KEY_NOT_EXIST);
+        }
+        return iApiKeyService.removeById(id);
+    }
+
+    @Override
+    public ApiKeyVO validate(String apiKey) {
+        if (!StringUtils.hasText(apiKey)) {
+            return null;
+        }
+        ApiKey entity = iApiKeyService.getOne(new LambdaQueryWrapper<ApiKey>()
+                .eq(ApiKey::getKeyHash, digest(apiKey)));
+        if (entity == null || Boolean.FALSE.equals(entity.getEnabled())) {
+            return null;
+        }
+        if (entity.getExpireTime() != null && entity.getExpireTime().isBefore(LocalDateTime.now())) {
+            log.debug("API Key 已过期: id={}, expireTime={}", entity.getId(), entity.getExpireTime());
+            return null;
+        }
+        return ApiKeyVO.builder()
+                .id(entity.getId())
+                .name(entity.getName())
+                .enabled(true)
+                .expireTime(entity.getExpireTime())
+                .description(entity.getDescription())
+                .build();
+    }
+
+    /**
+     * 计算 API Key 的 SHA-256 摘要
+     *
+     * @param apiKey API Key 明文
+     * @return 十六进制摘要
+     */
+    private String digest(String apiKey) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
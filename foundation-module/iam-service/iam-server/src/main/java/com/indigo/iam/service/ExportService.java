@@ -0,0 +1,108 @@
+package com.indigo.iam.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.indigo.foundation.common.repository.QueryConditions;
+import com.indigo.iam.repository.entity.Roles;
+import com.indigo.iam.repository.entity.Users;
+import com.indigo.iam.repository.service.IRoleService;
+import com.indigo.iam.repository.service.IUsersService;
+import com.indigo.iam.sdk.dto.query.RoleDTO;
+import com.indigo.iam.sdk.dto.query.UsersDTO;
+import com.indigo.iam.sdk.enums.ExportFormat;
+import com.indigo.iam.sdk.vo.users.RoleVO;
+import com.indigo.iam.sdk.vo.users.UserVO;
+import com.indigo.iam.service.ExportWriter.Column;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 用户、角色流式导出
+ * 通过 MyBatis 游标逐行读取，边读边写到输出流，不在内存中汇总结果集
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface ExportService {
+
+    /**
+     * 导出用户（不含密码）
+     *
+     * @param params 查询条件（@QueryCondition，与 /user/list 一致）
+     * @param format 导出格式
+     * @param out    输出流（不关闭）
+     * @return 导出行数
+     */
+    long exportUsers(UsersDTO params, ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * 导出角色
+     *
+     * @param params 查询条件（@QueryCondition，与 /role/list 一致）
+     * @param format 导出格式
+     * @param out    输出流（不关闭）
+     * @return 导出行数
+     */
+    long exportRoles(RoleDTO params, ExportFormat format, OutputStream out) throws IOException;
+}
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+class ExportServiceImpl implements ExportService {
+
+    private final IUsersService iUsersService;
+    private final IRoleService iRoleService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(UsersDTO params, ExportFormat format, OutputStream out) throws IOException {
+        QueryWrapper<Users> wrapper = QueryConditions.of(params);
+        wrapper.eq("deleted", 1).orderByDesc("create_time", "id");
+
+        ExportWriter<UserVO> writer = new ExportWriter<>(format, List.of(
+                new Column<>("ID", UserVO::getId),
+                new Column<>("账号", UserVO::getAccount),
+                new Column<>("姓名", UserVO::getRealName),
+                new Column<>("类型", UserVO::getType),
+                new Column<>("邮箱", UserVO::getEmail),
+                new Column<>("手机号", UserVO::getMobile),
+                new Column<>("启用", UserVO::getEnabled),
+                new Column<>("锁定", UserVO::getLocked),
+                new Column<>("过期", UserVO::getExpired),
+                new Column<>("创建时间", UserVO::getCreateTime)));
+        // 游标需在事务（同一连接）内消费完毕
+        try (Cursor<UserVO> cursor = iUsersService.getMapper().streamUsers(wrapper)) {
+            long start = System.currentTimeMillis();
+            long count = writer.write(cursor, out);
+            log.info("导出用户完成: format={}, rows={}, 耗时={}ms", format, count, System.currentTimeMillis() - start);
+            return count;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportRoles(RoleDTO params, ExportFormat format, OutputStream out) throws IOException {
+        QueryWrapper<Roles> wrapper = QueryConditions.of(params);
+        wrapper.eq("deleted", 1).orderByDesc("create_time", "id");
+
+        ExportWriter<RoleVO> writer = new ExportWriter<>(format, List.of(
+                new Column<>("ID", RoleVO::getId),
+                new Column<>("编码", RoleVO::getCode),
+                new Column<>("描述", RoleVO::getDescription),
+                new Column<>("状态", RoleVO::getStatus),
+                new Column<>("创建时间", RoleVO::getCreateTime)));
+        try (Cursor<RoleVO> cursor = iRoleService.getMapper().streamRoles(wrapper)) {
+            long start = System.currentTimeMillis();
+            long count = writer.write(cursor, out);
+            log.info("导出角色完成: format={}, rows={}, 耗时={}ms", format, count, System.currentTimeMillis() - start);
+            return count;
+        }
+    }
+}
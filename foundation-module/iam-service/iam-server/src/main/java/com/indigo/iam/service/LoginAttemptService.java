@@ -0,0 +1,293 @@
+package com.indigo.iam.service;
+
+import cn.hutool.core.util.StrUtil;
+import com.indigo.core.exception.Ex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.indigo.iam.sdk.enums.IamError.LOGIN_ATTEMPTS_EXCEEDED;
+
+/**
+ * 登录失败限制
+ * 按客户端 IP、按（账号, IP）统计登录失败次数（Redis 计数，多实例共享），超过免检次数后按指数递增封禁时长，
+ * 封禁期间的登录请求在查询用户、校验密码之前直接拒绝，暴力猜测不再消耗密码哈希的 CPU；
+ * 同一账号在同一 IP 上连续失败达到锁定阈值时，锁定该账号在该 IP 上的登录 lock-duration-seconds
+ *
+ * 账号维度的封禁、锁定都只作用于产生失败的 IP：自身没有失败记录的 IP 不会因为其他 IP 的失败被拒绝，
+ * 攻击者轮换 IP 输错密码无法锁定他人账号；账号在所有 IP 上的失败总数只用于告警（分布式猜测）。
+ * 账号状态 Users.locked 只由管理员修改，管理员解锁时调用 reset 清除该账号在所有 IP 上的封禁和锁定
+ *
+ * 账号按 Accounts.normalize 规范化后计数；账号相关状态只存在 Redis 中，reset 对所有实例立即生效；
+ * IP 封禁截止时间另在本地缓存，同一攻击来源的重复请求不再访问 Redis，Redis 不可用时只按本地 IP 封禁判断
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface LoginAttemptService {
+
+    /**
+     * 检查是否允许登录，IP 处于封禁期、账号在该 IP 上处于封禁期或被锁定时抛出 LOGIN_ATTEMPTS_EXCEEDED
+     *
+     * @param account  登录账号
+     * @param clientIp 客户端 IP
+     */
+    void checkAllowed(String account, String clientIp);
+
+    /**
+     * 记录登录失败
+     *
+     * @param account  登录账号
+     * @param clientIp 客户端 IP
+     * @return 账号在该 IP 上的失败次数是否达到锁定阈值（已锁定）
+     */
+    boolean recordFailure(String account, String clientIp);
+
+    /**
+     * 登录成功或管理员解锁后清除账号的失败记录、封禁及锁定
+     *
+     * @param account 登录账号
+     */
+    void reset(String account);
+}
+
+@Slf4j
+@Service
+class LoginAttemptServiceImpl implements LoginAttemptService {
+
+    private static final String KEY_PREFIX = "synapse:iam:login:";
+    private static final String ACCOUNT = "account:";
+    private static final String IP = "ip:";
+    private static final int LOCAL_CLEANUP_SIZE = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final long windowSeconds;
+    private final int accountFreeAttempts;
+    private final int ipFreeAttempts;
+    private final int accountAlertThreshold;
+    private final int lockThreshold;
+    private final long lockDurationSeconds;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * 本地 IP 封禁截止时间（epoch 毫秒），key 为 ip:xxx
+     */
+    private final Map<String, Long> ipBlockedUntil = new ConcurrentHashMap<>();
+
+    LoginAttemptServiceImpl(StringRedisTemplate redisTemplate,
+                            @Value("${synapse.iam.login-attempt.window-seconds:900}") long windowSeconds,
+                            @Value("${synapse.iam.login-attempt.account-free-attempts:3}") int accountFreeAttempts,
+                            @Value("${synapse.iam.login-attempt.ip-free-attempts:20}") int ipFreeAttempts,
+                            @Value("${synapse.iam.login-attempt.account-alert-threshold:50}") int accountAlertThreshold,
+                            @Value("${synapse.iam.login-attempt.lock-threshold:10}") int lockThreshold,
+                            @Value("${synapse.iam.login-attempt.lock-duration-seconds:1800}") long lockDurationSeconds,
+                            @Value("${synapse.iam.login-attempt.base-delay-ms:1000}") long baseDelayMillis,
+                            @Value("${synapse.iam.login-attempt.max-delay-ms:300000}") long maxDelayMillis) {
+        this.redisTemplate = redisTemplate;
+        this.windowSeconds = windowSeconds;
+        this.accountFreeAttempts = accountFreeAttempts;
+        this.ipFreeAttempts = ipFreeAttempts;
+        this.accountAlertThreshold = accountAlertThreshold;
+        this.lockThreshold = lockThreshold;
+        this.lockDurationSeconds = lockDurationSeconds;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    @Override
+    public void checkAllowed(String account, String clientIp) {
+        String accountKey = ACCOUNT + Accounts.normalize(account);
+        String ipKey = IP + clientIp;
+        long now = System.currentTimeMillis();
+        if (isIpBlockedLocally(ipKey, now)) {
+            Ex.throwEx(LOGIN_ATTEMPTS_EXCEEDED);
+        }
+
+        List<Object> until;
+        try {
+            until = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.get(blockKey(ipKey));
+                stringConnection.hGet(pairBlockKey(accountKey), ipKey);
+                stringConnection.hGet(lockKey(accountKey), ipKey);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("查询登录封禁状态失败，按本地状态放行: account={}, ip={}", account, clientIp, e);
+            return;
+        }
+        if (isBlocked(until.get(0), now)) {
+            blockIpLocally(ipKey, Long.parseLong((String) until.get(0)));
+            Ex.throwEx(LOGIN_ATTEMPTS_EXCEEDED);
+        }
+        if (isBlocked(until.get(1), now) || isBlocked(until.get(2), now)) {
+            Ex.throwEx(LOGIN_ATTEMPTS_EXCEEDED);
+        }
+    }
+
+    @Override
+    public boolean recordFailure(String account, String clientIp) {
+        String accountKey = ACCOUNT + Accounts.normalize(account);
+        String ipKey = IP + clientIp;
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                // 账号在所有 IP 上的失败总数，只用于告警
+                stringConnection.incr(failKey(accountKey));
+                stringConnection.expire(failKey(accountKey), windowSeconds);
+                stringConnection.incr(failKey(ipKey));
+                stringConnection.expire(failKey(ipKey), windowSeconds);
+                // 账号 + IP 的失败次数（哈希字段为 IP），用于封禁和锁定判断
+                stringConnection.hIncrBy(pairFailKey(accountKey), ipKey, 1);
+                stringConnection.expire(pairFailKey(accountKey), windowSeconds);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("记录登录失败次数失败: account={}, ip={}", account, clientIp, e);
+            return false;
+        }
+        long accountFailures = ((Number) results.get(0)).longValue();
+        long ipFailures = ((Number) results.get(2)).longValue();
+        long pairFailures = ((Number) results.get(4)).longValue();
+
+        blockPair(accountKey, ipKey, delayMillis(pairFailures, accountFreeAttempts));
+        long ipDelay = delayMillis(ipFailures, ipFreeAttempts);
+        block(ipKey, ipDelay);
+        if (ipDelay > 0) {
+            blockIpLocally(ipKey, System.currentTimeMillis() + ipDelay);
+        }
+        if (pairFailures > accountFreeAttempts || ipFailures > ipFreeAttempts) {
+            log.warn("登录失败次数过多，暂时封禁: account={}, pairFailures={}, ip={}, ipFailures={}",
+                    account, pairFailures, clientIp, ipFailures);
+        }
+        if (accountFailures == accountAlertThreshold) {
+            log.warn("账号在多个 IP 上登录失败次数过多，疑似分布式猜测: account={}, failures={}",
+                    account, accountFailures);
+        }
+        if (pairFailures < lockThreshold) {
+            return false;
+        }
+        lock(accountKey, ipKey);
+        return true;
+    }
+
+    @Override
+    public void reset(String account) {
+        String accountKey = ACCOUNT + Accounts.normalize(account);
+        try {
+            redisTemplate.delete(List.of(failKey(accountKey), pairFailKey(accountKey), pairBlockKey(accountKey),
+                    lockKey(accountKey)));
+        } catch (Exception e) {
+            log.warn("清除登录失败记录失败: account={}", account, e);
+        }
+    }
+
+    /**
+     * 封禁时长：超过免检次数后从基础时长开始每次翻倍，不超过最大时长
+     */
+    long delayMillis(long failures, int freeAttempts) {
+        if (failures <= freeAttempts) {
+            return 0;
+        }
+        int exponent = (int) Math.min(failures - freeAttempts - 1, 30);
+        return Math.min(baseDelayMillis << exponent, maxDelayMillis);
+    }
+
+    private void block(String key, long delayMillis) {
+        if (delayMillis <= 0) {
+            return;
+        }
+        long until = System.currentTimeMillis() + delayMillis;
+        try {
+            redisTemplate.opsForValue().set(blockKey(key), String.valueOf(until), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("写入登录封禁状态失败: key={}", key, e);
+        }
+    }
+
+    /**
+     * 封禁账号在指定 IP 上的登录（哈希字段为 IP，值为封禁截止时间），不影响其他 IP
+     */
+    private void blockPair(String accountKey, String ipKey, long delayMillis) {
+        if (delayMillis <= 0) {
+            return;
+        }
+        long until = System.currentTimeMillis() + delayMillis;
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.hSet(pairBlockKey(accountKey), ipKey, String.valueOf(until));
+                stringConnection.pExpire(pairBlockKey(accountKey), Math.max(delayMillis,
+                        TimeUnit.SECONDS.toMillis(windowSeconds)));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("写入登录封禁状态失败: key={}, ip={}", accountKey, ipKey, e);
+        }
+    }
+
+    /**
+     * 锁定账号在指定 IP 上的登录（哈希字段为 IP，值为锁定截止时间），到期自动解除
+     */
+    private void lock(String accountKey, String ipKey) {
+        long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(lockDurationSeconds);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.hSet(lockKey(accountKey), ipKey, String.valueOf(until));
+                stringConnection.expire(lockKey(accountKey), lockDurationSeconds);
+                stringConnection.hDel(pairFailKey(accountKey), ipKey);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("写入登录锁定状态失败: key={}, ip={}", accountKey, ipKey, e);
+        }
+    }
+
+    private static boolean isBlocked(Object until, long now) {
+        return until instanceof String value && !StrUtil.isBlank(value) && Long.parseLong(value) > now;
+    }
+
+    private boolean isIpBlockedLocally(String key, long now) {
+        Long until = ipBlockedUntil.get(key);
+        return until != null && until > now;
+    }
+
+    private void blockIpLocally(String key, long until) {
+        if (ipBlockedUntil.size() >= LOCAL_CLEANUP_SIZE) {
+            long now = System.currentTimeMillis();
+            ipBlockedUntil.values().removeIf(value -> value <= now);
+        }
+        ipBlockedUntil.merge(key, until, Math::max);
+    }
+
+    private static String failKey(String key) {
+        return KEY_PREFIX + "fail:" + key;
+    }
+
+    private static String pairFailKey(String accountKey) {
+        return KEY_PREFIX + "fail-by-ip:" + accountKey;
+    }
+
+    private static String blockKey(String key) {
+        return KEY_PREFIX + "block:" + key;
+    }
+
+    private static String pairBlockKey(String accountKey) {
+        return KEY_PREFIX + "block-by-ip:" + accountKey;
+    }
+
+    private static String lockKey(String accountKey) {
+        return KEY_PREFIX + "lock:" + accountKey;
+    }
+}
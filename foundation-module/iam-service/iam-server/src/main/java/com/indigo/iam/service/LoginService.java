@@ -2,7 +2,7 @@ package com.indigo.iam.service;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.indigo.core.constants.StandardErrorCode;
 import com.indigo.core.exception.Ex;
 import com.indigo.databases.utils.VoMapper;
@@ -17,7 +17,6 @@ import com.indigo.security.core.AuthenticationService;
 import com.indigo.security.model.AuthRequest;
 import com.indigo.security.model.AuthResponse;
 import com.indigo.security.model.auth.UsernamePasswordAuth;
-import com.indigo.security.utils.PasswordUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -35,10 +34,11 @@ public interface LoginService {
     /**
      * 用户登录
      *
-     * @param dto 登录请求
+     * @param dto      登录请求
+     * @param clientIp 客户端 IP（用于登录失败限制）
      * @return 登录响应
      */
-    LoginResponseVO login(LoginDTO dto);
+    LoginResponseVO login(LoginDTO dto, String clientIp);
 
 }
 
@@ -60,16 +60,21 @@ class LoginServiceImpl implements LoginService {
     private final IResourceService iResourceService;
     private final ISystemService iSystemService;
     private final IMenuService iMenuService;
+    private final PasswordVerificationService passwordVerificationService;
+    private final LoginAttemptService loginAttemptService;
+    private final UserAccountCache userAccountCache;
+    private final MenuTreeDigestService menuTreeDigestService;
 
     /**
      * 用户登录
      *
-     * @param dto 登录请求
+     * @param dto      登录请求
+     * @param clientIp 客户端 IP
      * @return 登录响应
      */
-    public LoginResponseVO login(LoginDTO dto) {
+    public LoginResponseVO login(LoginDTO dto, String clientIp) {
         // 1. 验证用户名密码
-        Users user = validateUser(dto);
+        Users user = validateUser(dto, clientIp);
 
         // 2. 查询用户角色
         List<String> roles = getUserRoles(user.getId());
@@ -119,6 +124,8 @@ class LoginServiceImpl implements LoginService {
 
         String token = authResponse.getAccessToken();
         long expiration = authResponse.getExpiresIn();
+        // 保存菜单树摘要，供 /auth/systemMenuTree、/user/info 的条件请求使用
+        menuTreeDigestService.store(token, systemMenuTree, permissions, expiration);
 
         log.info("用户登录成功: userId={}, username={}, token={}, systemMenuTreeSize={}", 
                 user.getId(), user.getAccount(), token, systemMenuTree.size());
@@ -133,34 +140,57 @@ class LoginServiceImpl implements LoginService {
     /**
      * 验证用户名密码
      *
-     * @param dto 登录请求
+     * @param dto      登录请求
+     * @param clientIp 客户端 IP
      * @return 用户信息
      */
-    private Users validateUser(LoginDTO dto) {
-        // 1. 查询用户
-        Users user = iUsersService.getOne(
-                new LambdaQueryWrapper<Users>()
-                        .eq(Users::getAccount, dto.getUsername())
-        );
+    private Users validateUser(LoginDTO dto, String clientIp) {
+        // 0. 账号或 IP 失败次数过多时，在查询用户、校验密码之前拒绝
+        loginAttemptService.checkAllowed(dto.getUsername(), clientIp);
+
+        // 1. 查询账号对应的用户ID（优先读取账号缓存，不存在的账号同样缓存）
+        String userId = userAccountCache.findUserId(dto.getUsername()).orElse(null);
+        if (userId == null) {
+            loginAttemptService.recordFailure(dto.getUsername(), clientIp);
+            Ex.throwEx(USER_NOT_EXIST);
+        }
 
+        // 2. 按主键读取用户（账号缓存不保存状态和密码哈希），按最新状态检查
+        Users user = iUsersService.getById(userId);
         if (user == null) {
+            userAccountCache.invalidate(dto.getUsername());
+            loginAttemptService.recordFailure(dto.getUsername(), clientIp);
             Ex.throwEx(USER_NOT_EXIST);
         }
-
-        // 2. 检查用户状态
         if (Boolean.TRUE.equals(user.getLocked())) {
             Ex.throwEx(USER_LOCKED);
         }
-
         if (Boolean.FALSE.equals(user.getEnabled())) {
             Ex.throwEx(USER_DISABLED);
         }
 
-        // 3. 验证密码
-        if (!PasswordUtils.matches(dto.getPassword(), user.getPassword())) {
+        // 3. 验证密码（在独立的有界线程池中执行，排队已满时拒绝）
+        PasswordVerificationService.Verification verification =
+                passwordVerificationService.verify(dto.getPassword(), user.getPassword());
+        if (!verification.matched()) {
+            if (loginAttemptService.recordFailure(dto.getUsername(), clientIp)) {
+                // 同一 IP 上连续失败达到锁定阈值，该 IP 上的登录被限时锁定，不修改账号状态
+                log.warn("登录失败次数达到锁定阈值，账号在该 IP 上限时锁定: userId={}, account={}, ip={}",
+                        user.getId(), user.getAccount(), clientIp);
+                Ex.throwEx(LOGIN_ATTEMPTS_EXCEEDED);
+            }
             Ex.throwEx(USER_PASSWORD_ERROR);
         }
 
+        loginAttemptService.reset(dto.getUsername());
+
+        // 4. 密文不是当前版本和参数时，保存重新哈希后的密文
+        if (verification.upgradedPassword() != null) {
+            iUsersService.update(new LambdaUpdateWrapper<Users>()
+                    .eq(Users::getId, user.getId())
+                    .set(Users::getPassword, verification.upgradedPassword()));
+            log.info("已升级用户密码哈希: userId={}", user.getId());
+        }
         return user;
     }
 
@@ -0,0 +1,123 @@
+package com.indigo.iam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.cache.manager.CacheKeyGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 会话菜单树摘要
+ * 写入会话菜单树和权限（登录、角色权限变更）时同时保存其内容摘要，
+ * /auth/systemMenuTree、/user/info 先按摘要比较 If-None-Match，未变化时直接返回 304，不读取菜单树、不序列化响应体
+ *
+ * 菜单树 ETag 只取决于内容，内容相同的会话（如重新登录）ETag 相同；
+ * 用户信息还包含登录时写入会话的用户资料，其 ETag 另按 token 区分，重新登录后用户资料变化不会返回旧内容；
+ * 未保存摘要的会话不返回 ETag，按普通请求处理
+ * 使用弱 ETag：网关会对响应进行压缩，压缩后的字节与原始内容不同
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface MenuTreeDigestService {
+
+    /**
+     * 随会话一起过期的摘要 key 类型（见 SessionRenewalService）
+     */
+    String KEY_TYPE = "menu-tree-digest";
+
+    /**
+     * 保存会话菜单树和权限的内容摘要
+     *
+     * @param token          访问令牌
+     * @param systemMenuTree 系统菜单树
+     * @param permissions    权限列表
+     * @param expiration     过期时间（秒），与会话一致
+     */
+    void store(String token, List<?> systemMenuTree, List<String> permissions, long expiration);
+
+    /**
+     * 会话菜单树（/auth/systemMenuTree）的 ETag
+     *
+     * @param token 访问令牌
+     * @return 弱 ETag，未保存摘要时为空
+     */
+    Optional<String> menuTreeEtag(String token);
+
+    /**
+     * 会话用户信息（/user/info）的 ETag
+     *
+     * @param token 访问令牌
+     * @return 弱 ETag，未保存摘要时为空
+     */
+    Optional<String> userInfoEtag(String token);
+}
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+class MenuTreeDigestServiceImpl implements MenuTreeDigestService {
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void store(String token, List<?> systemMenuTree, List<String> permissions, long expiration) {
+        String digest;
+        try {
+            digest = digest(objectMapper.writeValueAsBytes(List.of(
+                    systemMenuTree != null ? systemMenuTree : List.of(),
+                    permissions != null ? permissions : List.of())));
+        } catch (JsonProcessingException e) {
+            // 无摘要时接口按普通请求返回，不影响登录和权限更新
+            log.warn("计算菜单树摘要失败: {}", e.getMessage());
+            redisTemplate.delete(key(token));
+            return;
+        }
+        redisTemplate.opsForValue().set(key(token), digest, Duration.ofSeconds(expiration));
+    }
+
+    @Override
+    public Optional<String> menuTreeEtag(String token) {
+        return find(token).map(digest -> weakEtag("m", digest));
+    }
+
+    @Override
+    public Optional<String> userInfoEtag(String token) {
+        return find(token).map(digest -> weakEtag("u", digest((token + ':' + digest).getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private Optional<String> find(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(redisTemplate.opsForValue().get(key(token)));
+    }
+
+    static String weakEtag(String prefix, String digest) {
+        return "W/\"" + prefix + '-' + digest + '"';
+    }
+
+    static String digest(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String key(String token) {
+        return cacheKeyGenerator.generate(CacheKeyGenerator.Module.USER, KEY_TYPE, token);
+    }
+}
@@ -0,0 +1,121 @@
+package com.indigo.iam.service;
+
+import com.indigo.security.utils.PasswordUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 密码哈希
+ * 新密码使用带版本和参数的格式：$pbkdf2-sha256$v1${迭代次数}${盐}${哈希}，
+ * 迭代次数按部署配置（synapse.iam.password.iterations），可按 CPU 预算调整；
+ * 无版本前缀的历史密码仍由 PasswordUtils 校验，校验成功后按当前参数重新哈希
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface PasswordHasher {
+
+    /**
+     * 按当前版本和参数哈希密码
+     *
+     * @param rawPassword 明文密码
+     * @return 密文密码
+     */
+    String encode(String rawPassword);
+
+    /**
+     * 校验密码（支持各版本格式）
+     *
+     * @param rawPassword     明文密码
+     * @param encodedPassword 密文密码
+     * @return 是否匹配
+     */
+    boolean matches(String rawPassword, String encodedPassword);
+
+    /**
+     * 密文是否需要按当前版本和参数重新哈希
+     *
+     * @param encodedPassword 密文密码
+     * @return 是否需要重新哈希
+     */
+    boolean needsRehash(String encodedPassword);
+}
+
+@Slf4j
+@Service
+class PasswordHasherImpl implements PasswordHasher {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "$pbkdf2-sha256$";
+    private static final String VERSION = "v1";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final int iterations;
+
+    PasswordHasherImpl(@Value("${synapse.iam.password.iterations:310000}") int iterations) {
+        this.iterations = iterations;
+        log.info("密码哈希参数: algorithm={}, version={}, iterations={}", ALGORITHM, VERSION, iterations);
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        secureRandom.nextBytes(salt);
+        byte[] hash = pbkdf2(rawPassword, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + VERSION + '$' + iterations + '$' + encoder.encodeToString(salt) + '$' + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        if (!encodedPassword.startsWith(PREFIX)) {
+            return PasswordUtils.matches(rawPassword, encodedPassword);
+        }
+        // v1：版本$迭代次数$盐$哈希
+        String[] parts = encodedPassword.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            log.warn("无法识别的密码哈希格式");
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[3]);
+            byte[] actual = pbkdf2(rawPassword, decoder.decode(parts[2]), Integer.parseInt(parts[1]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            // 迭代次数不是数字或不为正数、盐或哈希不是合法 Base64、盐为空：按不匹配处理，不中断登录
+            log.warn("密码哈希格式错误: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword == null
+                || !encodedPassword.startsWith(PREFIX + VERSION + '$' + iterations + '$');
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("密码哈希失败", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
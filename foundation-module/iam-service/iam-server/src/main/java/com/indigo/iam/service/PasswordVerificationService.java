@@ -0,0 +1,140 @@
+package com.indigo.iam.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码校验服务
+ * 密码哈希校验是刻意设计的慢操作，在独立的有界线程池中执行，
+ * 登录高峰时只占用固定数量的 CPU，不会让所有 Tomcat 工作线程都消耗在哈希计算上；
+ * 排队已满时立即抛出 RejectedExecutionException（登录接口返回 429）；
+ * 校验成功且密文不是当前版本和参数时，在同一任务中重新哈希（见 PasswordHasher）
+ *
+ * 指标：
+ * - iam.password.verify：哈希校验耗时
+ * - iam.password.verify.queue / active：排队中、执行中的校验数
+ * - iam.password.verify.rejected：因排队已满被拒绝的校验次数
+ * - iam.password.rehash：登录时升级密码哈希的次数
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface PasswordVerificationService {
+
+    /**
+     * 校验密码
+     *
+     * @param rawPassword     明文密码
+     * @param encodedPassword 密文密码
+     * @return 校验结果
+     * @throws RejectedExecutionException 校验排队已满
+     */
+    Verification verify(String rawPassword, String encodedPassword);
+
+    /**
+     * 校验结果
+     *
+     * @param matched          是否匹配
+     * @param upgradedPassword 按当前参数重新哈希的密文，无需升级时为 null
+     */
+    record Verification(boolean matched, String upgradedPassword) {
+    }
+}
+
+@Slf4j
+@Service
+class PasswordVerificationServiceImpl implements PasswordVerificationService {
+
+    private final PasswordHasher passwordHasher;
+    private final ThreadPoolExecutor executor;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+    private final Counter rehashCounter;
+
+    PasswordVerificationServiceImpl(PasswordHasher passwordHasher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${synapse.iam.password-verification.threads:0}") int threads,
+                                    @Value("${synapse.iam.password-verification.queue-capacity:64}") int queueCapacity) {
+        this.passwordHasher = passwordHasher;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verifyTimer = Timer.builder("iam.password.verify")
+                .description("Password hash verification time")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("iam.password.verify.rejected")
+                .description("Password verifications rejected because the queue is full")
+                .register(meterRegistry);
+        this.rehashCounter = Counter.builder("iam.password.rehash")
+                .description("Password hashes upgraded to the current parameters on login")
+                .register(meterRegistry);
+        Gauge.builder("iam.password.verify.queue", executor, pool -> pool.getQueue().size())
+                .description("Password verifications waiting in the queue")
+                .register(meterRegistry);
+        Gauge.builder("iam.password.verify.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications in progress")
+                .register(meterRegistry);
+        log.info("密码校验线程池已创建: threads={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public Verification verify(String rawPassword, String encodedPassword) {
+        Future<Verification> future;
+        try {
+            future = executor.submit(() -> {
+                boolean matched = Boolean.TRUE.equals(verifyTimer.recordCallable(
+                        () -> passwordHasher.matches(rawPassword, encodedPassword)));
+                if (!matched || !passwordHasher.needsRehash(encodedPassword)) {
+                    return new Verification(matched, null);
+                }
+                rehashCounter.increment();
+                return new Verification(true, passwordHasher.encode(rawPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("密码校验排队已满，拒绝登录请求: queue={}", executor.getQueue().size());
+            throw e;
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("密码校验被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码校验失败", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -3,21 +3,36 @@ package com.indigo.iam.service;
 import cn.hutool.core.collection.CollUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.indigo.core.entity.dto.QueryDTO;
 import com.indigo.core.entity.result.PageResult;
 import com.indigo.core.exception.Ex;
+import com.indigo.foundation.common.query.KeysetPageResult;
+import com.indigo.foundation.common.repository.KeysetPagination;
 import com.indigo.iam.repository.entity.IamResource;
 import com.indigo.iam.repository.entity.Menu;
 import com.indigo.iam.repository.service.IResourceService;
 import com.indigo.iam.repository.service.IMenuService;
 import com.indigo.iam.sdk.dto.opera.AddOrModifyResourceDTO;
 import com.indigo.iam.sdk.dto.query.ResourceDTO;
+import com.indigo.iam.sdk.enums.ExportFormat;
 import com.indigo.iam.sdk.vo.resource.ResourceDetailVO;
+import com.indigo.iam.service.ExportWriter.Column;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+
 import static com.indigo.iam.sdk.enums.IamError.RESOURCE_EXIST;
 import static com.indigo.iam.sdk.enums.IamError.RESOURCE_NOT_EXIST;
 
@@ -50,6 +65,24 @@ public interface ResourceService {
      * @return 资源详情分页结果
      */
     PageResult<ResourceDetailVO> pageResourceDetail(ResourceDTO queryDTO);
+
+    /**
+     * 资源详情游标分页查询（与 pageResourceDetail 查询条件一致，按 (create_time, id) 倒序，不使用 OFFSET）
+     *
+     * @param queryDTO 查询条件（含上一页游标）
+     * @return 资源详情分页结果（含下一页游标）
+     */
+    KeysetPageResult<ResourceDetailVO> keysetPageResourceDetail(ResourceDTO queryDTO);
+
+    /**
+     * 资源详情流式导出（与 pageResourceDetail 查询条件一致，按创建时间倒序）
+     *
+     * @param queryDTO 查询条件
+     * @param format   导出格式
+     * @param out      输出流（不关闭）
+     * @return 导出行数
+     */
+    long exportResourceDetail(ResourceDTO queryDTO, ExportFormat format, OutputStream out) throws IOException;
 }
 
 @Slf4j
@@ -60,6 +93,53 @@ class ResourceServiceImpl implements ResourceService {
     private final IResourceService iResourceService;
     private final IMenuService iMenuService;
 
+    /**
+     * 资源详情总数缓存（按查询条件，短时间缓存，资源变更时清空）
+     */
+    private final Cache<CountKey, Long> resourceCountCache = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .build();
+
+    /**
+     * 无查询条件且资源表估算行数不小于该值时，返回估算总数（0 表示始终精确统计）
+     */
+    @Value("${synapse.iam.resource-page.estimate-count-threshold:0}")
+    private long estimateCountThreshold;
+
+    /**
+     * 编码、名称、权限编码使用全文索引（ngram）检索，需先关闭停用词（innodb_ft_enable_stopword=OFF）再创建
+     * ft_code、ft_name、ft_permissions 索引；启动时校验不通过则回退为 LIKE
+     */
+    @Value("${synapse.iam.resource-page.fulltext-search:false}")
+    private boolean fulltextSearch;
+
+    /**
+     * ngram 分词长度（与 MySQL ngram_token_size 一致），短于该长度的关键字无法使用全文索引
+     */
+    @Value("${synapse.iam.resource-page.ngram-token-size:2}")
+    private int ngramTokenSize;
+
+    /**
+     * 校验全文检索前提：三个 ngram 索引已创建，且未启用内置停用词
+     * 内置停用词表含 "a"、"i" 等，ngram 分词中包含停用词的词元不入索引，MATCH 会漏掉 LIKE 能查到的行
+     */
+    @PostConstruct
+    void verifyFulltextSearch() {
+        if (!fulltextSearch) {
+            return;
+        }
+        int indexes = iResourceService.getMapper().countFulltextIndexes();
+        if (indexes < 3) {
+            log.warn("iam_resources 缺少全文索引（已创建 {}/3），资源检索回退为 LIKE", indexes);
+            fulltextSearch = false;
+        } else if (iResourceService.getMapper().fulltextStopwordEnabled()) {
+            log.warn("MySQL 启用了内置全文停用词，资源检索回退为 LIKE；"
+                    + "请设置 innodb_ft_enable_stopword=OFF 后重建 ft_code、ft_name、ft_permissions 索引");
+            fulltextSearch = false;
+        }
+    }
+
     @Override
     public Boolean addOrModifyResource(AddOrModifyResourceDTO param) {
         // 验证资源必须关联菜单
@@ -76,7 +156,9 @@ class ResourceServiceImpl implements ResourceService {
         if (iResourceService.checkKeyUniqueness(param, "code")) {
             Ex.throwEx(RESOURCE_EXIST);
         }
-        return iResourceService.saveOrUpdateFromDTO(param, IamResource.class);
+        Boolean saved = iResourceService.saveOrUpdateFromDTO(param, IamResource.class);
+        resourceCountCache.invalidateAll();
+        return saved;
     }
 
     @Override
@@ -85,28 +167,18 @@ class ResourceServiceImpl implements ResourceService {
         if (resource == null) {
             Ex.throwEx(RESOURCE_NOT_EXIST);
         }
-        return iResourceService.removeById(id);
+        boolean removed = iResourceService.removeById(id);
+        resourceCountCache.invalidateAll();
+        return removed;
     }
 
     @Override
     public PageResult<ResourceDetailVO> pageResourceDetail(ResourceDTO queryDTO) {
-        // 创建分页对象
-        Page<ResourceDetailVO> page = new Page<>(queryDTO.getPageNo(), queryDTO.getPageSize());
+        // 创建分页对象（总数由 countResourceDetail 单独统计，不对联查 SQL 做 COUNT）
+        Page<ResourceDetailVO> page = new Page<>(queryDTO.getPageNo(), queryDTO.getPageSize(), false);
 
         // 使用 QueryWrapper 构建查询条件（使用表别名）
-        QueryWrapper<IamResource> wrapper = new QueryWrapper<>();
-
-        // 固定查询条件：逻辑删除
-        wrapper.eq("res.deleted", 1);
-
-        // 资源表字段查询条件（使用表别名 res）
-        // 使用 MyBatis-Plus 的条件判断方法，第一个参数判断是否需要拼接
-        wrapper.like(StringUtils.hasText(queryDTO.getCode()), "res.code", queryDTO.getCode())
-                .like(StringUtils.hasText(queryDTO.getName()), "res.name", queryDTO.getName())
-                .eq(StringUtils.hasText(queryDTO.getSystemId()), "sys.id", queryDTO.getSystemId())
-                .eq(StringUtils.hasText(queryDTO.getMenuId()), "res.menu_id", queryDTO.getMenuId())
-                .eq(StringUtils.hasText(queryDTO.getType()), "res.type", queryDTO.getType())
-                .like(StringUtils.hasText(queryDTO.getPermissions()), "res.permissions", queryDTO.getPermissions());
+        QueryWrapper<IamResource> wrapper = resourceDetailFilters(queryDTO);
 
         // 排序：使用 DTO 中的 orderByList，如果为空则使用默认排序
         if (CollUtil.isNotEmpty(queryDTO.getOrderByList())) {
@@ -136,7 +208,137 @@ class ResourceServiceImpl implements ResourceService {
         // 执行查询（使用 ew 参数进行 SQL 拼接）
         Page<ResourceDetailVO> result = iResourceService.getMapper().selectResourceDetailPage(page, wrapper);
 
-        return PageResult.of(result.getRecords(), result.getTotal(), result.getCurrent(), result.getSize());
+        long total = Boolean.FALSE.equals(queryDTO.getSearchCount())
+                ? KeysetPageResult.TOTAL_NOT_COUNTED : countResourceDetail(queryDTO);
+        return PageResult.of(result.getRecords(), total, result.getCurrent(), result.getSize());
+    }
+
+    @Override
+    public KeysetPageResult<ResourceDetailVO> keysetPageResourceDetail(ResourceDTO queryDTO) {
+        long pageSize = queryDTO.getPageSize();
+        QueryWrapper<IamResource> wrapper = resourceDetailFilters(queryDTO);
+        KeysetPagination.seek(wrapper, queryDTO, "res.create_time", "res.id");
+
+        // 多取一条判断是否有下一页
+        Page<ResourceDetailVO> result = iResourceService.getMapper()
+                .selectResourceDetailPage(new Page<>(1, pageSize + 1, false), wrapper);
+        List<ResourceDetailVO> records = result.getRecords();
+        boolean hasNext = records.size() > pageSize;
+        if (hasNext) {
+            records = records.subList(0, (int) pageSize);
+        }
+
+        long total = Boolean.FALSE.equals(queryDTO.getSearchCount())
+                ? KeysetPageResult.TOTAL_NOT_COUNTED : countResourceDetail(queryDTO);
+        return KeysetPageResult.of(records, total, pageSize, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportResourceDetail(ResourceDTO queryDTO, ExportFormat format, OutputStream out) throws IOException {
+        QueryWrapper<IamResource> wrapper = resourceDetailFilters(queryDTO);
+        wrapper.orderByDesc("res.create_time", "res.id");
+
+        ExportWriter<ResourceDetailVO> writer = new ExportWriter<>(format, List.of(
+                new Column<>("ID", ResourceDetailVO::getId),
+                new Column<>("系统编码", ResourceDetailVO::getSystemCode),
+                new Column<>("系统名称", ResourceDetailVO::getSystemName),
+                new Column<>("菜单编码", ResourceDetailVO::getMenuCode),
+                new Column<>("菜单名称", ResourceDetailVO::getMenuName),
+                new Column<>("编码", ResourceDetailVO::getCode),
+                new Column<>("名称", ResourceDetailVO::getName),
+                new Column<>("类型", ResourceDetailVO::getType),
+                new Column<>("权限标识", ResourceDetailVO::getPermissions),
+                new Column<>("描述", ResourceDetailVO::getDescription),
+                new Column<>("创建时间", ResourceDetailVO::getCreateTime)));
+        // 游标需在事务（同一连接）内消费完毕
+        try (Cursor<ResourceDetailVO> cursor = iResourceService.getMapper().streamResourceDetail(wrapper)) {
+            long start = System.currentTimeMillis();
+            long count = writer.write(cursor, out);
+            log.info("导出资源完成: format={}, rows={}, 耗时={}ms", format, count, System.currentTimeMillis() - start);
+            return count;
+        }
+    }
+
+    /**
+     * 资源详情查询条件（不含排序）
+     *
+     * @param queryDTO 查询条件
+     * @return 查询条件包装器
+     */
+    private QueryWrapper<IamResource> resourceDetailFilters(ResourceDTO queryDTO) {
+        QueryWrapper<IamResource> wrapper = new QueryWrapper<>();
+
+        // 固定查询条件：逻辑删除
+        wrapper.eq("res.deleted", 1);
+
+        // 资源表字段查询条件（使用表别名 res）
+        // 使用 MyBatis-Plus 的条件判断方法，第一个参数判断是否需要拼接
+        wrapper.eq(StringUtils.hasText(queryDTO.getSystemId()), "sys.id", queryDTO.getSystemId())
+                .eq(StringUtils.hasText(queryDTO.getMenuId()), "res.menu_id", queryDTO.getMenuId())
+                .eq(StringUtils.hasText(queryDTO.getType()), "res.type", queryDTO.getType());
+        contains(wrapper, "res.code", queryDTO.getCode());
+        contains(wrapper, "res.name", queryDTO.getName());
+        contains(wrapper, "res.permissions", queryDTO.getPermissions());
+        return wrapper;
+    }
+
+    /**
+     * 包含匹配条件
+     * 启用全文检索且关键字不短于 ngram 分词长度时，先用 MATCH ... AGAINST 短语检索走全文索引筛选候选行，
+     * 再以 LIKE 保证结果与原有的包含匹配一致；否则只使用 LIKE
+     *
+     * @param wrapper 查询条件包装器
+     * @param column  列名（含表别名，固定值）
+     * @param keyword 关键字
+     */
+    private void contains(QueryWrapper<IamResource> wrapper, String column, String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return;
+        }
+        String phrase = keyword.replace("\"", "").trim();
+        if (fulltextSearch && phrase.codePointCount(0, phrase.length()) >= ngramTokenSize) {
+            wrapper.apply("MATCH(" + column + ") AGAINST({0} IN BOOLEAN MODE)", "\"" + phrase + "\"");
+        }
+        wrapper.like(column, keyword);
+    }
+
+    /**
+     * 资源详情总数
+     * 1. 没有 sys.* 条件时只统计资源表（菜单、系统按主键 LEFT JOIN，不影响行数）
+     * 2. 按查询条件短时间缓存，翻页时不重复统计
+     * 3. 无查询条件且配置了估算阈值时，大表返回估算总数
+     *
+     * @param queryDTO 查询条件
+     * @return 总数
+     */
+    private long countResourceDetail(ResourceDTO queryDTO) {
+        CountKey countKey = new CountKey(queryDTO.getCode(), queryDTO.getName(), queryDTO.getSystemId(),
+                queryDTO.getMenuId(), queryDTO.getType(), queryDTO.getPermissions());
+        return resourceCountCache.get(countKey, key -> {
+            boolean systemFilter = StringUtils.hasText(queryDTO.getSystemId());
+            boolean resourceFilter = StringUtils.hasText(queryDTO.getCode())
+                    || StringUtils.hasText(queryDTO.getName())
+                    || StringUtils.hasText(queryDTO.getMenuId())
+                    || StringUtils.hasText(queryDTO.getType())
+                    || StringUtils.hasText(queryDTO.getPermissions());
+            if (estimateCountThreshold > 0 && !systemFilter && !resourceFilter) {
+                Long estimate = iResourceService.getMapper().estimateResourceRows();
+                if (estimate != null && estimate >= estimateCountThreshold) {
+                    return estimate;
+                }
+            }
+            QueryWrapper<IamResource> filters = resourceDetailFilters(queryDTO);
+            return systemFilter
+                    ? iResourceService.getMapper().countResourceDetail(filters)
+                    : iResourceService.getMapper().countResources(filters);
+        });
     }
 
-}
\ No newline at end of file
+    /**
+     * 总数缓存键：各查询条件原值（含 null）逐项比较，不做字符串拼接
+     */
+    private record CountKey(String code, String name, String systemId, String menuId, String type,
+                            String permissions) {
+    }
+}
@@ -114,6 +114,7 @@ class RoleServiceImpl implements RoleService {
     private final RedisService redisService;
     private final CacheKeyGenerator cacheKeyGenerator;
     private final IRoleService iRoleService;
+    private final MenuTreeDigestService menuTreeDigestService;
     @Override
     public RolePermissionVO getRolePermissionTree(String roleId) {
         return RolePermissionVO.builder()
@@ -354,6 +355,9 @@ class RoleServiceImpl implements RoleService {
                     // 更新权限列表
                     userSessionService.storeUserPermissions(token, permissions, expiration);
 
+                    // 更新菜单树摘要（条件请求的 ETag）
+                    menuTreeDigestService.store(token, systemMenuTree, permissions, expiration);
+
                     updatedCount++;
                     log.debug("已更新用户 {} 的 token {} 的权限缓存", userId, token);
 
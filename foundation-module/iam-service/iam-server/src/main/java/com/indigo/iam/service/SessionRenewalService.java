@@ -0,0 +1,181 @@
+package com.indigo.iam.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.indigo.cache.manager.CacheKeyGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话滑动过期续期
+ * 请求线程只记录被访问的 token，后台线程按固定间隔批量处理，请求路径上不再同步写 Redis：
+ * 1. 以管道批量读取会话 key 的剩余时间（TTL），会话不存在（未登录或已注销）的 token 直接丢弃，不做记录
+ * 2. 仅剩余时间少于刷新阈值的会话以 EXPIRE 管道续期为续期时长，与原“剩余时间少于刷新阈值时续期”规则一致，不会缩短更长的有效期
+ * 3. 记录每个会话下次需要检查的时间，期间的访问不再进入队列
+ *
+ * 待处理 token 和检查时间记录都有数量上限，超过上限的访问在下次访问时重新记录
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface SessionRenewalService {
+
+    /**
+     * 记录 token 被访问，由后台批量续期
+     *
+     * @param token 访问令牌
+     */
+    void touch(String token);
+}
+
+@Slf4j
+@Service
+class SessionRenewalServiceImpl implements SessionRenewalService {
+
+    /**
+     * 随会话一起过期的 token 数据（见 README 数据存储说明）
+     */
+    private static final String[] SESSION_KEY_TYPES = {"session", "roles", "permissions", "menus", "resources", "systems",
+            MenuTreeDigestService.KEY_TYPE};
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final long refreshThresholdSeconds;
+    private final long renewalSeconds;
+    private final int batchSize;
+    private final int maxTrackedTokens;
+
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+    /**
+     * 会话下次需要检查剩余时间的时刻（System.nanoTime），仅记录存在的会话
+     */
+    private final Cache<String, Long> nextCheckAt;
+    private final ScheduledExecutorService scheduler;
+
+    SessionRenewalServiceImpl(StringRedisTemplate redisTemplate,
+                              CacheKeyGenerator cacheKeyGenerator,
+                              @Value("${synapse.security.token.refresh-threshold:600}") long refreshThresholdSeconds,
+                              @Value("${synapse.security.token.renewal-duration:7200}") long renewalSeconds,
+                              @Value("${synapse.iam.session-renewal.flush-interval-ms:1000}") long flushIntervalMs,
+                              @Value("${synapse.iam.session-renewal.batch-size:500}") int batchSize,
+                              @Value("${synapse.iam.session-renewal.max-tracked-tokens:100000}") int maxTrackedTokens) {
+        this.redisTemplate = redisTemplate;
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        this.refreshThresholdSeconds = refreshThresholdSeconds;
+        this.renewalSeconds = renewalSeconds;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxTrackedTokens = Math.max(1, maxTrackedTokens);
+        this.nextCheckAt = Caffeine.newBuilder()
+                .maximumSize(this.maxTrackedTokens)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, renewalSeconds)))
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void touch(String token) {
+        Long checkAt = nextCheckAt.getIfPresent(token);
+        if (checkAt != null && System.nanoTime() - checkAt < 0) {
+            return;
+        }
+        if (touched.size() < maxTrackedTokens) {
+            touched.add(token);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+        flushSafely();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 续期失败的 token 在下次访问时重新记录
+            log.warn("批量续期会话失败", e);
+        }
+    }
+
+    void flush() {
+        if (touched.isEmpty()) {
+            return;
+        }
+        List<String> batch = new ArrayList<>(Math.min(touched.size(), batchSize));
+        Iterator<String> iterator = touched.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == batchSize || !iterator.hasNext()) {
+                renew(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void renew(List<String> tokens) {
+        List<Object> ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String token : tokens) {
+                stringConnection.ttl(sessionKey(token, SESSION_KEY_TYPES[0]));
+            }
+            return null;
+        });
+
+        long now = System.nanoTime();
+        List<String> expiring = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            Object ttl = ttls.get(i);
+            // -2：会话不存在，-1：未设置过期时间，均不续期也不记录
+            if (!(ttl instanceof Long remaining) || remaining < 0) {
+                continue;
+            }
+            String token = tokens.get(i);
+            if (remaining < refreshThresholdSeconds) {
+                expiring.add(token);
+                nextCheckAt.put(token, now + TimeUnit.SECONDS.toNanos(renewalSeconds - refreshThresholdSeconds));
+            } else {
+                nextCheckAt.put(token, now + TimeUnit.SECONDS.toNanos(remaining - refreshThresholdSeconds));
+            }
+        }
+        if (expiring.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String token : expiring) {
+                for (String type : SESSION_KEY_TYPES) {
+                    stringConnection.expire(sessionKey(token, type), renewalSeconds);
+                }
+            }
+            return null;
+        });
+        log.debug("批量续期会话: checked={}, renewed={}", tokens.size(), expiring.size());
+    }
+
+    private String sessionKey(String token, String type) {
+        return cacheKeyGenerator.generate(CacheKeyGenerator.Module.USER, type, token);
+    }
+}
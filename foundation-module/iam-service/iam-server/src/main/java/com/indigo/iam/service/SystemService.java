@@ -2,6 +2,7 @@ package com.indigo.iam.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.indigo.core.exception.Ex;
+import com.indigo.foundation.common.cache.GatewayCacheService;
 import com.indigo.iam.repository.entity.IamSystem;
 import com.indigo.iam.repository.entity.Menu;
 import com.indigo.iam.repository.service.IMenuService;
@@ -43,12 +44,16 @@ class SystemServiceImpl implements SystemService {
 
     private final IMenuService iMenuService;
 
+    private final GatewayCacheService gatewayCacheService;
+
     @Override
     public Boolean addOrModifySystem(AddOrModifySystemDTO param) {
         if (iSystemService.checkKeyUniqueness(param, "code")) {
             Ex.throwEx(SYSTEM_EXIST);
         }
-        return iSystemService.saveOrUpdateFromDTO(param, IamSystem.class);
+        Boolean saved = iSystemService.saveOrUpdateFromDTO(param, IamSystem.class);
+        gatewayCacheService.evict(GatewayCacheService.TAG_SYSTEM);
+        return saved;
     }
 
     @Override
@@ -63,6 +68,7 @@ class SystemServiceImpl implements SystemService {
             Ex.throwEx(SYSTEM_BIND_MENU);
         }
         iSystemService.removeById(id);
+        gatewayCacheService.evict(GatewayCacheService.TAG_SYSTEM);
         return true;
     }
 }
\ No newline at end of file
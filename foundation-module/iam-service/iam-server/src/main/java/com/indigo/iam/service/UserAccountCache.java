@@ -0,0 +1,136 @@
+package com.indigo.iam.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.indigo.iam.repository.entity.Users;
+import com.indigo.iam.repository.service.IUsersService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 账号查询缓存
+ * 登录按账号查找用户、新增用户的账号唯一性校验优先读取本地缓存；
+ * 不存在的账号缓存为空结果（较短的存活时间），大量不存在账号的登录请求不会穿透到数据库
+ *
+ * 只缓存账号到用户 ID 的映射，不缓存用户状态、用户实体及密码哈希：登录时按主键读取用户并以最新状态校验，
+ * 其他实例上的锁定、解锁、启用、停用立即生效；缓存 key 为 Accounts.normalize 规范化后的账号（账号不区分大小写）
+ *
+ * 本实例的用户新增、修改、删除后清除对应缓存；其他实例修改账号名的变更在缓存存活时间内可能不可见
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface UserAccountCache {
+
+    /**
+     * 按账号查询用户 ID
+     *
+     * @param account 账号
+     * @return 用户ID，不存在时为空
+     */
+    Optional<String> findUserId(String account);
+
+    /**
+     * 账号是否已被其他用户使用（仅根据缓存中的已知用户判断，缓存未命中时返回 false）
+     *
+     * @param account 账号
+     * @param userId  当前用户ID（新增时为 null）
+     * @return 已知被其他用户使用时返回 true
+     */
+    boolean isKnownTakenByOther(String account, String userId);
+
+    /**
+     * 清除账号缓存
+     *
+     * @param account 账号
+     */
+    void invalidate(String account);
+
+    /**
+     * 清除用户的缓存（账号可能已被修改）
+     *
+     * @param userId 用户ID
+     */
+    void invalidateUser(String userId);
+}
+
+@Slf4j
+@Service
+class UserAccountCacheImpl implements UserAccountCache {
+
+    private final IUsersService iUsersService;
+    private final Cache<String, String> accounts;
+    private final Cache<String, Boolean> unknownAccounts;
+
+    UserAccountCacheImpl(IUsersService iUsersService,
+                         @Value("${synapse.iam.account-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${synapse.iam.account-cache.ttl-seconds:300}") long ttlSeconds,
+                         @Value("${synapse.iam.account-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.iUsersService = iUsersService;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.unknownAccounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .build();
+    }
+
+    @Override
+    public Optional<String> findUserId(String account) {
+        if (account == null) {
+            return Optional.empty();
+        }
+        String key = Accounts.normalize(account);
+        String cached = accounts.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (unknownAccounts.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+
+        Users user = iUsersService.getOne(new LambdaQueryWrapper<Users>()
+                .select(Users::getId)
+                .eq(Users::getAccount, key));
+        if (user == null) {
+            unknownAccounts.put(key, Boolean.TRUE);
+            return Optional.empty();
+        }
+        accounts.put(key, user.getId());
+        return Optional.of(user.getId());
+    }
+
+    @Override
+    public boolean isKnownTakenByOther(String account, String userId) {
+        if (account == null) {
+            return false;
+        }
+        String cached = accounts.getIfPresent(Accounts.normalize(account));
+        return cached != null && !cached.equals(userId);
+    }
+
+    @Override
+    public void invalidate(String account) {
+        if (account == null) {
+            return;
+        }
+        String key = Accounts.normalize(account);
+        accounts.invalidate(key);
+        unknownAccounts.invalidate(key);
+    }
+
+    @Override
+    public void invalidateUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        accounts.asMap().values().removeIf(userId::equals);
+    }
+}
@@ -0,0 +1,299 @@
+package com.indigo.iam.service;
+
+import cn.hutool.core.text.csv.CsvReadConfig;
+import cn.hutool.core.text.csv.CsvReader;
+import cn.hutool.core.text.csv.CsvRow;
+import cn.hutool.core.text.csv.CsvUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.indigo.core.exception.Ex;
+import com.indigo.iam.repository.entity.Users;
+import com.indigo.iam.repository.service.IUsersService;
+import com.indigo.iam.sdk.enums.UserTypeEnum;
+import com.indigo.iam.sdk.vo.users.UserImportResultVO;
+import com.indigo.iam.sdk.vo.users.UserImportResultVO.RowError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.indigo.iam.sdk.enums.IamError.USER_IMPORT_FILE_INVALID;
+
+/**
+ * 用户批量导入
+ * 流式读取 CSV（表头：account、realName、email、mobile、type、password，account 必填），按批处理：
+ * 1. 行校验及文件内账号去重
+ * 2. 一次 IN 查询校验整批账号唯一性
+ * 3. 在独立的有界线程池中并行哈希密码（未填写时使用默认密码）
+ * 4. saveBatch 批量写入（数据源开启 rewriteBatchedStatements 时合并为多行 INSERT）；与并发新增冲突
+ *    （未删除账号唯一索引 uk_active_account）时整批回滚，改为逐行写入，冲突行记为“账号已存在”
+ * 单行失败不影响其他行，失败行在结果中逐行返回；账号唯一性由数据库保证，多个导入任务可并行执行
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public interface UserImportService {
+
+    /**
+     * 导入用户
+     *
+     * @param in CSV 输入流（UTF-8，可带 BOM）
+     * @return 导入结果
+     */
+    UserImportResultVO importUsers(InputStream in) throws IOException;
+}
+
+@Slf4j
+@Service
+class UserImportServiceImpl implements UserImportService {
+
+    private static final String DEFAULT_PASSWORD = "123456";
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    private final IUsersService iUsersService;
+    private final PasswordHasher passwordHasher;
+    private final UserAccountCache userAccountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashExecutor;
+    private final int batchSize;
+    private final int maxRows;
+
+    UserImportServiceImpl(IUsersService iUsersService,
+                          PasswordHasher passwordHasher,
+                          UserAccountCache userAccountCache,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${synapse.iam.user-import.batch-size:1000}") int batchSize,
+                          @Value("${synapse.iam.user-import.max-rows:100000}") int maxRows,
+                          @Value("${synapse.iam.user-import.hash-threads:0}") int hashThreads) {
+        this.iUsersService = iUsersService;
+        this.passwordHasher = passwordHasher;
+        this.userAccountCache = userAccountCache;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRows = maxRows;
+        // 默认只用一半 CPU，避免导入期间登录的密码校验排队
+        int poolSize = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.batchSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.hashExecutor.allowCoreThreadTimeOut(true);
+        log.info("用户导入密码哈希线程池已创建: threads={}, batchSize={}", poolSize, this.batchSize);
+    }
+
+    /**
+     * 待导入行
+     */
+    private record ImportRow(long line, String account, String realName, String email, String mobile,
+                             String type, String password) {
+    }
+
+    @Override
+    public UserImportResultVO importUsers(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        UserImportResultVO result = new UserImportResultVO();
+        result.setErrors(new ArrayList<>());
+        // 文件内已出现的账号（小写，与 utf8mb4_general_ci 的大小写不敏感比较一致）
+        Set<String> seenAccounts = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        skipBom(reader);
+        CsvReader csvReader = CsvUtil.getReader(CsvReadConfig.defaultConfig()
+                .setContainsHeader(true)
+                .setSkipEmptyRows(true));
+        csvReader.read(reader, row -> {
+            long index = result.getTotal() + 1;
+            result.setTotal(index);
+            if (index == 1 && !row.getFieldMap().containsKey("account")) {
+                Ex.throwEx(USER_IMPORT_FILE_INVALID, "缺少 account 表头");
+            }
+            if (index > maxRows) {
+                return;
+            }
+            chunk.add(toImportRow(index + 1, row));
+            if (chunk.size() >= batchSize) {
+                importChunk(chunk, seenAccounts, result);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, seenAccounts, result);
+        }
+        if (result.getTotal() > maxRows) {
+            result.getErrors().add(new RowError(maxRows + 2L, null,
+                    "超过最大行数 " + maxRows + "，共 " + (result.getTotal() - maxRows) + " 行未导入"));
+        }
+
+        result.setFailed(result.getTotal() - result.getImported());
+        log.info("用户导入完成: total={}, imported={}, failed={}, 耗时={}ms",
+                result.getTotal(), result.getImported(), result.getFailed(), System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * 导入一批：行校验 -> 批量唯一性校验 -> 并行哈希 -> 批量写入
+     */
+    private void importChunk(List<ImportRow> chunk, Set<String> seenAccounts, UserImportResultVO result) {
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String error = validate(row);
+            if (error == null && !seenAccounts.add(row.account().toLowerCase(Locale.ROOT))) {
+                error = "文件内账号重复";
+            }
+            if (error != null) {
+                result.getErrors().add(new RowError(row.line(), row.account(), error));
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // 整批账号一次查询
+        Set<String> existing = iUsersService.list(new LambdaQueryWrapper<Users>()
+                        .select(Users::getAccount)
+                        .in(Users::getAccount, valid.stream().map(ImportRow::account).toList()))
+                .stream()
+                .map(user -> user.getAccount().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        List<ImportRow> rows = new ArrayList<>(valid.size());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(valid.size());
+        for (ImportRow row : valid) {
+            if (existing.contains(row.account().toLowerCase(Locale.ROOT))) {
+                result.getErrors().add(new RowError(row.line(), row.account(), "账号已存在"));
+                continue;
+            }
+            String password = StrUtil.isBlank(row.password()) ? DEFAULT_PASSWORD : row.password();
+            rows.add(row);
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordHasher.encode(password), hashExecutor));
+        }
+
+        List<Users> users = new ArrayList<>(rows.size());
+        List<ImportRow> hashed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            try {
+                users.add(Users.builder()
+                        .account(row.account())
+                        .realName(row.realName())
+                        .email(row.email())
+                        .mobile(row.mobile())
+                        .type(row.type())
+                        .password(hashes.get(i).join())
+                        .build());
+                hashed.add(row);
+            } catch (RuntimeException e) {
+                log.warn("用户导入密码哈希失败: line={}, account={}", row.line(), row.account(), e);
+                result.getErrors().add(new RowError(row.line(), row.account(), "密码处理失败"));
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            // 显式事务：批量写入失败时整批回滚，逐行重试不会重复写入
+            transactionTemplate.executeWithoutResult(status -> iUsersService.saveBatch(users, batchSize));
+        } catch (DuplicateKeyException e) {
+            // 查重后有账号被并发写入，整批已回滚，逐行写入以定位冲突行
+            log.info("用户导入批量写入存在重复账号，改为逐行写入: lines={}-{}",
+                    hashed.get(0).line(), hashed.get(hashed.size() - 1).line());
+            saveEach(users, hashed, result);
+            return;
+        } catch (RuntimeException e) {
+            log.error("用户导入批量写入失败: lines={}-{}", hashed.get(0).line(), hashed.get(hashed.size() - 1).line(), e);
+            hashed.forEach(row -> result.getErrors().add(new RowError(row.line(), row.account(), "保存失败")));
+            return;
+        }
+        result.setImported(result.getImported() + users.size());
+        // 清除账号缓存（可能缓存了“账号不存在”）
+        hashed.forEach(row -> userAccountCache.invalidate(row.account()));
+    }
+
+    /**
+     * 逐行写入，唯一索引冲突的行记为“账号已存在”
+     */
+    private void saveEach(List<Users> users, List<ImportRow> rows, UserImportResultVO result) {
+        for (int i = 0; i < users.size(); i++) {
+            ImportRow row = rows.get(i);
+            try {
+                iUsersService.save(users.get(i));
+                result.setImported(result.getImported() + 1);
+                userAccountCache.invalidate(row.account());
+            } catch (DuplicateKeyException e) {
+                result.getErrors().add(new RowError(row.line(), row.account(), "账号已存在"));
+            } catch (RuntimeException e) {
+                log.error("用户导入写入失败: line={}, account={}", row.line(), row.account(), e);
+                result.getErrors().add(new RowError(row.line(), row.account(), "保存失败"));
+            }
+        }
+    }
+
+    private static ImportRow toImportRow(long line, CsvRow row) {
+        String type = StrUtil.trim(row.getByName("type"));
+        return new ImportRow(line,
+                StrUtil.trim(row.getByName("account")),
+                StrUtil.trim(row.getByName("realName")),
+                StrUtil.trim(row.getByName("email")),
+                StrUtil.trim(row.getByName("mobile")),
+                StrUtil.isBlank(type) ? UserTypeEnum.INNER.name() : type.toUpperCase(Locale.ROOT),
+                row.getByName("password"));
+    }
+
+    /**
+     * 行校验
+     *
+     * @return 错误信息，校验通过时返回 null
+     */
+    private static String validate(ImportRow row) {
+        if (StrUtil.isBlank(row.account())) {
+            return "账号不能为空";
+        }
+        if (Arrays.stream(UserTypeEnum.values()).noneMatch(type -> type.name().equals(row.type()))) {
+            return "账号类型无效: " + row.type();
+        }
+        for (String value : new String[]{row.account(), row.realName(), row.email(), row.mobile(), row.password()}) {
+            if (value != null && value.length() > MAX_FIELD_LENGTH) {
+                return "字段长度不能超过 " + MAX_FIELD_LENGTH;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 跳过 UTF-8 BOM（Excel 另存的 CSV 带 BOM，否则首列表头无法识别）
+     */
+    private static void skipBom(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+}
@@ -8,10 +8,11 @@ import com.indigo.iam.repository.entity.*;
 import com.indigo.iam.repository.service.*;
 import com.indigo.iam.sdk.dto.associated.EmpowerDTO;
 import com.indigo.iam.sdk.dto.opera.AddOrModifyUserDTO;
-import com.indigo.security.utils.PasswordUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -85,29 +86,52 @@ class UserServiceImpl implements UserService {
 
     private final IResourceService iResourceService;
 
+    private final LoginAttemptService loginAttemptService;
+
+    private final PasswordHasher passwordHasher;
+
+    private final UserAccountCache userAccountCache;
+
     @Override
     public Boolean addOrModifyUser(AddOrModifyUserDTO param) {
-        if (iUsersService.checkKeyUniqueness(param, "account")) {
+        // 缓存中已知被其他用户使用的账号直接拒绝，否则查询数据库
+        if (userAccountCache.isKnownTakenByOther(param.getAccount(), param.getId())
+                || iUsersService.checkKeyUniqueness(param, "account")) {
             Ex.throwEx(USER_ACCOUNT_EXIST);
         }
         if (StrUtil.isBlank(param.getId())) {
             // 新增场景：使用 saveFromDTO，保存前设置默认密码
             Users user = Users.builder()
-                    .password(PasswordUtils.encode("123456"))
+                    .password(passwordHasher.encode("123456"))
                     .build();
-            return iUsersService.saveFromDTO(param, user);
+            try {
+                Boolean saved = iUsersService.saveFromDTO(param, user);
+                userAccountCache.invalidate(param.getAccount());
+                return saved;
+            } catch (DuplicateKeyException e) {
+                // 并发新增同一账号，由未删除账号的唯一索引 uk_active_account 拦截
+                Ex.throwEx(USER_ACCOUNT_EXIST);
+                return false;
+            }
         } else {
-            // 更新场景：使用 updateFromDTO
+            // 更新场景：使用 updateFromDTO（账号可能被修改，按用户ID清除缓存）
             try {
-                return iUsersService.updateFromDTO(param);
+                Boolean updated = iUsersService.updateFromDTO(param);
+                userAccountCache.invalidateUser(param.getId());
+                userAccountCache.invalidate(param.getAccount());
+                return updated;
             } catch (IllegalArgumentException e) {
                 Ex.throwEx(USER_NOT_EXIST);
                 return false;
+            } catch (DuplicateKeyException e) {
+                Ex.throwEx(USER_ACCOUNT_EXIST);
+                return false;
             }
         }
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Boolean deleteUser(String id) {
         Users user = iUsersService.getById(id);
         if (user == null) {
@@ -117,7 +141,9 @@ class UserServiceImpl implements UserService {
         iUsersRoleService.remove(new LambdaQueryWrapper<UsersRole>()
                 .eq(UsersRole::getUserId, id));
         // 删除用户
-        return iUsersService.removeById(id);
+        boolean removed = iUsersService.removeById(id);
+        userAccountCache.invalidate(user.getAccount());
+        return removed;
     }
 
 
@@ -157,6 +183,15 @@ class UserServiceImpl implements UserService {
         if (params.getEnabled() != null) {
             user.setEnabled(!user.getEnabled());
         }
-        return iUsersService.updateById(user);
+        if (params.getLocked() != null) {
+            user.setLocked(params.getLocked());
+            if (!params.getLocked()) {
+                // 解锁时清除登录失败记录
+                loginAttemptService.reset(user.getAccount());
+            }
+        }
+        boolean updated = iUsersService.updateById(user);
+        userAccountCache.invalidate(user.getAccount());
+        return updated;
     }
 }
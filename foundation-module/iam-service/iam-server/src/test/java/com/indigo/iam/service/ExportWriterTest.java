@@ -0,0 +1,112 @@
+package com.indigo.iam.service;
+
+import com.indigo.iam.sdk.enums.ExportFormat;
+import com.indigo.iam.service.ExportWriter.Column;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ExportWriter CSV 转义、公式注入防护与 NDJSON 逐行输出
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class ExportWriterTest {
+
+    private static final List<Column<Map<String, Object>>> COLUMNS = List.of(
+            new Column<>("编码", row -> row.get("code")),
+            new Column<>("名称", row -> row.get("name")),
+            new Column<>("创建时间", row -> row.get("createTime")));
+
+    @Test
+    void csvStartsWithBomAndHeader() throws IOException {
+        String csv = write(ExportFormat.CSV, List.of(row("user:add", "新增用户", LocalDateTime.of(2025, 12, 2, 9, 5, 30))));
+
+        assertThat(csv).startsWith("\uFEFF编码,名称,创建时间\r\n");
+        assertThat(csv).endsWith("user:add,新增用户,2025-12-02 09:05:30\r\n");
+    }
+
+    @Test
+    void csvQuotesCellsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        String csv = write(ExportFormat.CSV, List.of(
+                row("a,b", "说\"明\"", null),
+                row("line", "第一行\n第二行", null)));
+
+        assertThat(csv).contains("\"a,b\",\"说\"\"明\"\"\",\r\n");
+        assertThat(csv).contains("line,\"第一行\n第二行\",\r\n");
+    }
+
+    @Test
+    void csvPrefixesFormulaCells() throws IOException {
+        String csv = write(ExportFormat.CSV, List.of(
+                row("=SUM(A1)", "+1", null),
+                row("-2", "@cmd", null)));
+
+        assertThat(csv).contains("'=SUM(A1),'+1,\r\n");
+        assertThat(csv).contains("'-2,'@cmd,\r\n");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineWithoutHeader() throws IOException {
+        String ndjson = write(ExportFormat.NDJSON, List.of(
+                row("user:add", "新增用户", null),
+                row("user:delete", "删除用户", null)));
+
+        List<String> lines = ndjson.lines().toList();
+        assertThat(ndjson).doesNotStartWith("\uFEFF").endsWith("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{").contains("\"code\":\"user:add\"").contains("新增用户");
+        assertThat(lines.get(1)).contains("\"code\":\"user:delete\"");
+    }
+
+    @Test
+    void writeCountsRowsAcrossFlushesAndLeavesStreamOpen() throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        IntStream.range(0, 2_500).forEach(i -> rows.add(row("c" + i, "n" + i, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = new ExportWriter<>(ExportFormat.CSV, COLUMNS).write(rows, out);
+        out.write('#');
+
+        assertThat(count).isEqualTo(2_500);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv.lines()).hasSize(2_502);
+        assertThat(csv).contains("c2499,n2499,\r\n#");
+    }
+
+    @Test
+    void emptyCsvExportHasHeaderOnly() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = new ExportWriter<>(ExportFormat.CSV, COLUMNS).write(Collections.emptyList(), out);
+
+        assertThat(count).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\uFEFF编码,名称,创建时间\r\n");
+    }
+
+    private static String write(ExportFormat format, List<Map<String, Object>> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ExportWriter<>(format, COLUMNS).write(rows, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> row(String code, String name, LocalDateTime createTime) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("code", code);
+        row.put("name", name);
+        row.put("createTime", createTime);
+        return row;
+    }
+}
@@ -0,0 +1,177 @@
+package com.indigo.iam.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * LoginAttemptServiceImpl 封禁时长、（账号, IP）隔离与锁定阈值
+ * Redis 以内存 Map 模拟（字符串、哈希），过期时间不模拟
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class LoginAttemptServiceImplTest {
+
+    private static final int ACCOUNT_FREE_ATTEMPTS = 3;
+    private static final int IP_FREE_ATTEMPTS = 20;
+    private static final int LOCK_THRESHOLD = 10;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<String, Map<String, String>> hashes = new HashMap<>();
+    private boolean redisDown;
+
+    private LoginAttemptServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            if (redisDown) {
+                throw new RedisConnectionFailureException("down");
+            }
+            List<Object> results = new ArrayList<>();
+            StringRedisConnection connection = mock(StringRedisConnection.class, call -> {
+                results.add(execute(call.getMethod().getName(), call.getArguments()));
+                return null;
+            });
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return results;
+        });
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        doAnswer(invocation -> strings.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        when(redisTemplate.delete(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            keys.forEach(key -> {
+                strings.remove(key);
+                hashes.remove(key);
+            });
+            return (long) keys.size();
+        });
+        service = new LoginAttemptServiceImpl(redisTemplate, 900, ACCOUNT_FREE_ATTEMPTS, IP_FREE_ATTEMPTS, 50,
+                LOCK_THRESHOLD, 1800, 1_000, 300_000);
+    }
+
+    @Test
+    void delayDoublesAfterFreeAttemptsUpToMaximum() {
+        assertThat(service.delayMillis(3, 3)).isZero();
+        assertThat(service.delayMillis(4, 3)).isEqualTo(1_000);
+        assertThat(service.delayMillis(5, 3)).isEqualTo(2_000);
+        assertThat(service.delayMillis(11, 3)).isEqualTo(128_000);
+        assertThat(service.delayMillis(12, 3)).isEqualTo(256_000);
+        assertThat(service.delayMillis(13, 3)).isEqualTo(300_000);
+        assertThat(service.delayMillis(Long.MAX_VALUE, 3)).isEqualTo(300_000);
+    }
+
+    @Test
+    void accountIsBlockedOnlyOnTheFailingIp() {
+        fail("alice", "10.0.0.1", ACCOUNT_FREE_ATTEMPTS);
+        assertThatCode(() -> service.checkAllowed("alice", "10.0.0.1")).doesNotThrowAnyException();
+
+        fail("alice", "10.0.0.1", 1);
+
+        assertThatThrownBy(() -> service.checkAllowed("alice", "10.0.0.1")).isInstanceOf(RuntimeException.class);
+        assertThatCode(() -> service.checkAllowed("alice", "10.0.0.2")).doesNotThrowAnyException();
+        assertThatCode(() -> service.checkAllowed("bob", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void accountIsNormalizedBeforeCounting() {
+        fail("Alice", "10.0.0.1", ACCOUNT_FREE_ATTEMPTS);
+        fail(" alice ", "10.0.0.1", 1);
+
+        assertThatThrownBy(() -> service.checkAllowed("ALICE", "10.0.0.1")).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void ipIsBlockedAcrossAccountsAndLocallyWhenRedisIsDown() {
+        for (int i = 0; i <= IP_FREE_ATTEMPTS; i++) {
+            service.recordFailure("user" + i, "10.0.0.9");
+        }
+
+        assertThatThrownBy(() -> service.checkAllowed("someone-else", "10.0.0.9")).isInstanceOf(RuntimeException.class);
+        redisDown = true;
+        assertThatThrownBy(() -> service.checkAllowed("someone-else", "10.0.0.9")).isInstanceOf(RuntimeException.class);
+        assertThatCode(() -> service.checkAllowed("someone-else", "10.0.0.10")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void reachingLockThresholdLocksAccountOnThatIp() {
+        for (int i = 1; i < LOCK_THRESHOLD; i++) {
+            assertThat(service.recordFailure("alice", "10.0.0.1")).isFalse();
+        }
+
+        assertThat(service.recordFailure("alice", "10.0.0.1")).isTrue();
+        assertThat(hashes.get("synapse:iam:login:lock:account:alice")).containsOnlyKeys("ip:10.0.0.1");
+    }
+
+    @Test
+    void resetClearsAccountBlocksAndLocks() {
+        fail("alice", "10.0.0.1", LOCK_THRESHOLD);
+
+        service.reset("Alice");
+
+        assertThatCode(() -> service.checkAllowed("alice", "10.0.0.1")).doesNotThrowAnyException();
+        assertThat(service.recordFailure("alice", "10.0.0.1")).isFalse();
+    }
+
+    private void fail(String account, String ip, int times) {
+        for (int i = 0; i < times; i++) {
+            service.recordFailure(account, ip);
+        }
+    }
+
+    /**
+     * 执行管道中的单条命令
+     */
+    private Object execute(String command, Object[] args) {
+        return switch (command) {
+            case "get" -> strings.get((String) args[0]);
+            case "incr" -> {
+                long value = Long.parseLong(strings.getOrDefault((String) args[0], "0")) + 1;
+                strings.put((String) args[0], String.valueOf(value));
+                yield value;
+            }
+            case "hGet" -> hash((String) args[0]).get((String) args[1]);
+            case "hIncrBy" -> {
+                long value = Long.parseLong(hash((String) args[0]).getOrDefault((String) args[1], "0"))
+                        + ((Number) args[2]).longValue();
+                hash((String) args[0]).put((String) args[1], String.valueOf(value));
+                yield value;
+            }
+            case "hSet" -> hash((String) args[0]).put((String) args[1], (String) args[2]) == null;
+            case "hDel" -> hash((String) args[0]).remove((String) args[1]) != null ? 1L : 0L;
+            case "expire", "pExpire" -> true;
+            default -> null;
+        };
+    }
+
+    private Map<String, String> hash(String key) {
+        return hashes.computeIfAbsent(key, ignored -> new HashMap<>());
+    }
+}
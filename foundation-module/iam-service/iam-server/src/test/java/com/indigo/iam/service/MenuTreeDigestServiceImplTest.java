@@ -0,0 +1,95 @@
+package com.indigo.iam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.cache.manager.CacheKeyGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * MenuTreeDigestServiceImpl 摘要与 ETag
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class MenuTreeDigestServiceImplTest {
+
+    private static final List<Map<String, String>> MENU_TREE = List.of(Map.of("id", "sys-1", "name", "IAM"));
+
+    private ValueOperations<String, String> values;
+    private MenuTreeDigestServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        CacheKeyGenerator keyGenerator = mock(CacheKeyGenerator.class);
+        when(keyGenerator.generate(eq(CacheKeyGenerator.Module.USER), eq(MenuTreeDigestService.KEY_TYPE), anyString()))
+                .thenAnswer(invocation -> "user:menu-tree-digest:" + invocation.getArgument(2));
+        service = new MenuTreeDigestServiceImpl(redisTemplate, keyGenerator, new ObjectMapper());
+    }
+
+    @Test
+    void storeWritesDigestWithSessionExpiration() {
+        service.store("t1", MENU_TREE, List.of("user:read"), 7200);
+
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        verify(values).set(eq("user:menu-tree-digest:t1"), digest.capture(), eq(Duration.ofSeconds(7200)));
+        assertThat(digest.getValue()).matches("[0-9a-f]{32}");
+    }
+
+    @Test
+    void digestDependsOnTreeAndPermissionsOnly() {
+        String first = storedDigest("t1", MENU_TREE, List.of("user:read"));
+        String sameContent = storedDigest("t2", MENU_TREE, List.of("user:read"));
+        String otherPermissions = storedDigest("t3", MENU_TREE, List.of("user:write"));
+
+        assertThat(sameContent).isEqualTo(first);
+        assertThat(otherPermissions).isNotEqualTo(first);
+    }
+
+    @Test
+    void menuTreeEtagIsWeakAndSharedAcrossSessions() {
+        when(values.get(anyString())).thenReturn("0123456789abcdef0123456789abcdef");
+
+        assertThat(service.menuTreeEtag("t1")).contains("W/\"m-0123456789abcdef0123456789abcdef\"");
+        assertThat(service.menuTreeEtag("t2")).isEqualTo(service.menuTreeEtag("t1"));
+    }
+
+    @Test
+    void userInfoEtagIsScopedToSession() {
+        when(values.get(anyString())).thenReturn("0123456789abcdef0123456789abcdef");
+
+        assertThat(service.userInfoEtag("t1")).hasValueSatisfying(etag -> assertThat(etag).startsWith("W/\"u-"));
+        assertThat(service.userInfoEtag("t2")).isNotEqualTo(service.userInfoEtag("t1"));
+    }
+
+    @Test
+    void missingDigestMeansNoEtag() {
+        assertThat(service.menuTreeEtag("t1")).isEmpty();
+        assertThat(service.userInfoEtag(null)).isEmpty();
+    }
+
+    private String storedDigest(String token, List<?> menuTree, List<String> permissions) {
+        service.store(token, menuTree, permissions, 60);
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        verify(values).set(eq("user:menu-tree-digest:" + token), digest.capture(), any(Duration.class));
+        return digest.getValue();
+    }
+}
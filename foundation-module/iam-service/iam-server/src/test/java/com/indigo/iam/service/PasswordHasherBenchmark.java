@@ -0,0 +1,93 @@
+package com.indigo.iam.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码哈希成本基准
+ * 按不同迭代次数测量登录密码校验（PasswordHasher.matches）的吞吐和单次耗时，
+ * 用于按部署机器的 CPU 预算选择 synapse.iam.password.iterations
+ *
+ * 运行（在 iam-server 目录，先执行 mvn test-compile）：
+ * java -cp target/classes:target/test-classes:$(依赖 classpath) com.indigo.iam.service.PasswordHasherBenchmark \
+ *   [迭代次数列表，逗号分隔，默认 100000,210000,310000,600000] [线程数，默认 CPU 核数] [每档持续秒数，默认 10]
+ *
+ * 线程数默认与登录密码校验线程池（synapse.iam.password-verification.threads=0）一致；
+ * 输出的“登录/秒”即该成本下单实例密码校验的吞吐上限
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public final class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "Benchmark#Passw0rd";
+    private static final int WARMUP_ROUNDS = 20;
+
+    private PasswordHasherBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Integer> costs = args.length > 0
+                ? Arrays.stream(args[0].split(",")).map(String::trim).map(Integer::parseInt).toList()
+                : List.of(100_000, 210_000, 310_000, 600_000);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        System.out.printf("CPU 核数=%d, 线程数=%d, 每档 %d 秒%n", Runtime.getRuntime().availableProcessors(), threads, seconds);
+        System.out.printf("%-12s %-12s %-14s %-14s%n", "iterations", "登录/秒", "平均耗时(ms)", "单线程耗时(ms)");
+        List<String> rows = new ArrayList<>();
+        for (int cost : costs) {
+            rows.add(run(cost, threads, seconds));
+        }
+        rows.forEach(System.out::println);
+    }
+
+    private static String run(int iterations, int threads, int seconds) throws InterruptedException {
+        PasswordHasher hasher = new PasswordHasherImpl(iterations);
+        String encoded = hasher.encode(PASSWORD);
+
+        // 预热 JIT，同时测量单线程单次耗时
+        long warmupStart = System.nanoTime();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            if (!hasher.matches(PASSWORD, encoded)) {
+                throw new IllegalStateException("密码校验失败");
+            }
+        }
+        double singleMillis = (System.nanoTime() - warmupStart) / 1e6 / WARMUP_ROUNDS;
+
+        LongAdder completed = new LongAdder();
+        LongAdder busyNanos = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        hasher.matches(PASSWORD, encoded);
+                        busyNanos.add(System.nanoTime() - begin);
+                        completed.increment();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long count = completed.sum();
+        double throughput = count / elapsedSeconds;
+        double meanMillis = count == 0 ? 0 : busyNanos.sum() / 1e6 / count;
+        return String.format("%-12d %-12.1f %-14.2f %-14.2f", iterations, throughput, meanMillis, singleMillis);
+    }
+}
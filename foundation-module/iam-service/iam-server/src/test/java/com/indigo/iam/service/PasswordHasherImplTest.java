@@ -0,0 +1,63 @@
+package com.indigo.iam.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PasswordHasherImpl 格式解析与重新哈希判断
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class PasswordHasherImplTest {
+
+    private static final int ITERATIONS = 1_000;
+
+    private final PasswordHasherImpl hasher = new PasswordHasherImpl(ITERATIONS);
+
+    @Test
+    void encodeWritesVersionAndIterationsAndMatches() {
+        String encoded = hasher.encode("secret");
+
+        assertThat(encoded).startsWith("$pbkdf2-sha256$v1$" + ITERATIONS + "$");
+        assertThat(hasher.matches("secret", encoded)).isTrue();
+        assertThat(hasher.matches("Secret", encoded)).isFalse();
+    }
+
+    @Test
+    void encodeUsesRandomSalt() {
+        assertThat(hasher.encode("secret")).isNotEqualTo(hasher.encode("secret"));
+    }
+
+    @Test
+    void matchesUsesIterationsStoredInHash() {
+        String encoded = new PasswordHasherImpl(2_000).encode("secret");
+
+        assertThat(hasher.matches("secret", encoded)).isTrue();
+    }
+
+    @Test
+    void malformedHashesAreMismatches() {
+        assertThat(hasher.matches("secret", "$pbkdf2-sha256$v1$abc$c2FsdA$aGFzaA")).isFalse();
+        assertThat(hasher.matches("secret", "$pbkdf2-sha256$v1$-5$c2FsdA$aGFzaA")).isFalse();
+        assertThat(hasher.matches("secret", "$pbkdf2-sha256$v1$1000$not*base64$aGFzaA")).isFalse();
+        assertThat(hasher.matches("secret", "$pbkdf2-sha256$v1$1000$$aGFzaA")).isFalse();
+        assertThat(hasher.matches("secret", "$pbkdf2-sha256$v1$1000$c2FsdA")).isFalse();
+        assertThat(hasher.matches("secret", "$pbkdf2-sha256$v2$1000$c2FsdA$aGFzaA")).isFalse();
+    }
+
+    @Test
+    void nullInputsAreMismatches() {
+        assertThat(hasher.matches(null, hasher.encode("secret"))).isFalse();
+        assertThat(hasher.matches("secret", null)).isFalse();
+    }
+
+    @Test
+    void needsRehashWhenIterationsOrFormatDiffer() {
+        assertThat(hasher.needsRehash(hasher.encode("secret"))).isFalse();
+        assertThat(hasher.needsRehash(new PasswordHasherImpl(2_000).encode("secret"))).isTrue();
+        assertThat(hasher.needsRehash("legacy-hash")).isTrue();
+        assertThat(hasher.needsRehash(null)).isTrue();
+    }
+}
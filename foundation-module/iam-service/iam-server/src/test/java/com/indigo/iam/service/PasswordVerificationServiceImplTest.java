@@ -0,0 +1,85 @@
+package com.indigo.iam.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * PasswordVerificationServiceImpl 有界校验线程池与登录时升级哈希
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class PasswordVerificationServiceImplTest {
+
+    private final PasswordHasher passwordHasher = mock(PasswordHasher.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordVerificationServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void outdatedHashIsUpgradedAfterSuccessfulMatch() {
+        service = new PasswordVerificationServiceImpl(passwordHasher, registry, 1, 1);
+        when(passwordHasher.matches("secret", "old")).thenReturn(true);
+        when(passwordHasher.needsRehash("old")).thenReturn(true);
+        when(passwordHasher.encode("secret")).thenReturn("new");
+
+        assertThat(service.verify("secret", "old")).isEqualTo(new PasswordVerificationService.Verification(true, "new"));
+        assertThat(registry.get("iam.password.rehash").counter().count()).isEqualTo(1);
+        assertThat(registry.get("iam.password.verify").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void mismatchIsNeverRehashed() {
+        service = new PasswordVerificationServiceImpl(passwordHasher, registry, 1, 1);
+        when(passwordHasher.matches("wrong", "old")).thenReturn(false);
+        when(passwordHasher.needsRehash("old")).thenReturn(true);
+
+        assertThat(service.verify("wrong", "old")).isEqualTo(new PasswordVerificationService.Verification(false, null));
+        verify(passwordHasher, never()).encode("wrong");
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        service = new PasswordVerificationServiceImpl(passwordHasher, registry, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordHasher.matches("slow", "hash")).thenAnswer(invocation -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+
+        // 一个执行中，一个排队
+        CompletableFuture<PasswordVerificationService.Verification> running =
+                CompletableFuture.supplyAsync(() -> service.verify("slow", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<PasswordVerificationService.Verification> queued =
+                CompletableFuture.supplyAsync(() -> service.verify("slow", "hash"));
+        while (registry.get("iam.password.verify.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> service.verify("slow", "hash")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(registry.get("iam.password.verify.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).matched()).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS).matched()).isTrue();
+    }
+}
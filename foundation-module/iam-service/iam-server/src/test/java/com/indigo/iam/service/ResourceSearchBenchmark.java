@@ -0,0 +1,250 @@
+package com.indigo.iam.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 资源检索基准（LIKE 与 ngram 全文索引）
+ * 在独立的 iam_resources_bench 表中生成指定行数的资源（默认 50 万），按资源分页接口的查询方式
+ * （res.deleted = 1 + 包含匹配，COUNT(*) 及按 create_time、id 倒序取首页 10 条）分别测量：
+ * 1. 只用 LIKE '%关键字%'（synapse.iam.resource-page.fulltext-search=false）
+ * 2. MATCH ... AGAINST 短语检索筛选后再 LIKE（fulltext-search=true）
+ * 并校验两种方式的命中行数一致，用于决定是否开启全文检索
+ *
+ * 基准表与 iam_resources 的检索相关列和索引一致；本会话关闭 innodb_ft_enable_stopword 后再创建全文索引，
+ * 与生产要求一致。关键字短于 ngram_token_size 时与 ResourceService 相同只使用 LIKE
+ *
+ * 运行（在 iam-server 目录，先执行 mvn test-compile；需要可写的 MySQL 8 库）：
+ * java -cp target/classes:target/test-classes:$(依赖 classpath) com.indigo.iam.service.ResourceSearchBenchmark \
+ *   "jdbc:mysql://localhost:3306/synapse_bench?rewriteBatchedStatements=true" 用户名 密码 \
+ *   [行数，默认 500000] [关键字列表，逗号分隔] [每个关键字重复次数，默认 20]
+ *
+ * 基准表在已存在且行数一致时复用，不会修改 iam_resources；测试结束后可手动 DROP TABLE iam_resources_bench
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public final class ResourceSearchBenchmark {
+
+    private static final String TABLE = "iam_resources_bench";
+    private static final int BATCH_SIZE = 5_000;
+    private static final int PAGE_SIZE = 10;
+
+    private static final String[] ACTIONS = {"query", "add", "modify", "delete", "export", "import", "audit", "assign"};
+    private static final String[] ACTION_NAMES = {"查询", "新增", "修改", "删除", "导出", "导入", "审核", "分配"};
+    private static final String[] MODULES = {"user", "role", "menu", "resource", "system", "country", "language",
+            "currency", "org", "dict", "notice", "report"};
+    private static final String[] MODULE_NAMES = {"用户", "角色", "菜单", "资源", "系统", "国家", "语言",
+            "币种", "组织", "字典", "公告", "报表"};
+
+    /**
+     * 默认关键字：选择性高、中、低，以及短于 ngram 分词长度的关键字
+     */
+    private static final String DEFAULT_KEYWORDS = "code:R0012345,code:report,name:报表导出,name:用户,permissions:assign,permissions:a";
+
+    private ResourceSearchBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.out.println("用法: ResourceSearchBenchmark <jdbcUrl> <用户名> <密码> [行数] [列:关键字,...] [重复次数]");
+            return;
+        }
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 500_000;
+        List<String[]> keywords = Arrays.stream((args.length > 4 ? args[4] : DEFAULT_KEYWORDS).split(","))
+                .map(String::trim)
+                .map(item -> item.split(":", 2))
+                .toList();
+        int repeats = args.length > 5 ? Integer.parseInt(args[5]) : 20;
+
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            prepare(connection, rows);
+            int ngramTokenSize = intVariable(connection, "ngram_token_size");
+            System.out.printf("行数=%d, ngram_token_size=%d, 每个关键字 %d 次%n", rows, ngramTokenSize, repeats);
+            System.out.printf("%-30s %-10s %-16s %-16s %-16s %-16s %-8s%n", "关键字", "命中行数",
+                    "LIKE 平均(ms)", "LIKE p95(ms)", "全文 平均(ms)", "全文 p95(ms)", "加速比");
+            for (String[] keyword : keywords) {
+                run(connection, keyword[0], keyword[1], ngramTokenSize, repeats);
+            }
+        }
+    }
+
+    /**
+     * 创建并填充基准表，已存在且行数一致时复用
+     */
+    private static void prepare(Connection connection, int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS iam_resources_bench (
+                  `id` varchar(19) NOT NULL,
+                  `menu_id` varchar(255) DEFAULT NULL,
+                  `code` varchar(255) NOT NULL,
+                  `name` varchar(255) NOT NULL,
+                  `type` varchar(255) DEFAULT NULL,
+                  `permissions` varchar(255) NOT NULL,
+                  `create_time` datetime DEFAULT NULL,
+                  `deleted` tinyint NOT NULL DEFAULT '1',
+                  PRIMARY KEY (`id`),
+                  KEY `idx_deleted_create_time` (`deleted`, `create_time`, `id`)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci
+                """);
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+                resultSet.next();
+                if (resultSet.getLong(1) == rows) {
+                    System.out.printf("复用已有基准表 %s%n", TABLE);
+                    return;
+                }
+            }
+            statement.execute("TRUNCATE TABLE " + TABLE);
+            dropFulltextIndexes(statement);
+        }
+
+        long start = System.currentTimeMillis();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE
+                + " (id, menu_id, code, name, type, permissions, create_time, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+            for (int i = 0; i < rows; i++) {
+                int module = i % MODULES.length;
+                int action = (i / MODULES.length) % ACTIONS.length;
+                insert.setString(1, String.format("%019d", i));
+                insert.setString(2, "M" + (i % 2_000));
+                insert.setString(3, String.format("R%07d_%s_%s", i, MODULES[module], ACTIONS[action]));
+                insert.setString(4, MODULE_NAMES[module] + ACTION_NAMES[action] + "-" + (i % 10_000));
+                insert.setString(5, i % 3 == 0 ? "API" : "FUNCTION");
+                insert.setString(6, MODULES[module] + ":" + ACTIONS[action] + ":" + (i % 1_000));
+                insert.setTimestamp(7, Timestamp.valueOf(base.plusSeconds(i)));
+                // 约 5% 为已删除
+                insert.setInt(8, i % 20 == 0 ? 0 : 1);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        System.out.printf("写入 %d 行，耗时 %d ms%n", rows, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            // 与生产要求一致：关闭内置停用词后再创建 ngram 索引
+            statement.execute("SET SESSION innodb_ft_enable_stopword = OFF");
+            statement.execute("ALTER TABLE " + TABLE
+                    + " ADD FULLTEXT KEY ft_code (code) WITH PARSER ngram,"
+                    + " ADD FULLTEXT KEY ft_name (name) WITH PARSER ngram,"
+                    + " ADD FULLTEXT KEY ft_permissions (permissions) WITH PARSER ngram");
+        }
+        System.out.printf("创建全文索引耗时 %d ms%n", System.currentTimeMillis() - start);
+    }
+
+    private static void dropFulltextIndexes(Statement statement) throws SQLException {
+        List<String> indexes = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery("SELECT DISTINCT index_name FROM information_schema.statistics"
+                + " WHERE table_schema = DATABASE() AND table_name = '" + TABLE + "' AND index_type = 'FULLTEXT'")) {
+            while (resultSet.next()) {
+                indexes.add(resultSet.getString(1));
+            }
+        }
+        for (String index : indexes) {
+            statement.execute("ALTER TABLE " + TABLE + " DROP INDEX " + index);
+        }
+    }
+
+    private static void run(Connection connection, String column, String keyword, int ngramTokenSize, int repeats)
+            throws SQLException {
+        String phrase = keyword.replace("\"", "").trim();
+        boolean fulltext = phrase.codePointCount(0, phrase.length()) >= ngramTokenSize;
+        String likeWhere = " WHERE deleted = 1 AND " + column + " LIKE ?";
+        String fulltextWhere = fulltext
+                ? " WHERE deleted = 1 AND MATCH(" + column + ") AGAINST(? IN BOOLEAN MODE) AND " + column + " LIKE ?"
+                : likeWhere;
+        List<String> likeParams = List.of("%" + keyword + "%");
+        List<String> fulltextParams = fulltext ? List.of("\"" + phrase + "\"", "%" + keyword + "%") : likeParams;
+
+        // 预热并校验命中行数
+        long likeTotal = count(connection, likeWhere, likeParams);
+        long fulltextTotal = count(connection, fulltextWhere, fulltextParams);
+        if (likeTotal != fulltextTotal) {
+            System.out.printf("%s:%s 命中行数不一致: LIKE=%d, 全文=%d（请检查停用词设置）%n",
+                    column, keyword, likeTotal, fulltextTotal);
+        }
+
+        long[] likeNanos = new long[repeats];
+        long[] fulltextNanos = new long[repeats];
+        for (int i = 0; i < repeats; i++) {
+            likeNanos[i] = timePage(connection, likeWhere, likeParams);
+            fulltextNanos[i] = timePage(connection, fulltextWhere, fulltextParams);
+        }
+        double likeMean = mean(likeNanos);
+        double fulltextMean = mean(fulltextNanos);
+        System.out.printf("%-30s %-10d %-16.1f %-16.1f %-16.1f %-16.1f %-8s%n",
+                column + ":" + keyword, likeTotal,
+                likeMean, p95(likeNanos), fulltextMean, p95(fulltextNanos),
+                fulltext ? String.format("%.1fx", likeMean / fulltextMean) : "仅 LIKE");
+    }
+
+    /**
+     * 分页接口一次请求：COUNT(*) + 首页数据
+     */
+    private static long timePage(Connection connection, String where, List<String> params) throws SQLException {
+        long start = System.nanoTime();
+        count(connection, where, params);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id, code, name, permissions FROM " + TABLE
+                + where + " ORDER BY create_time DESC, id DESC LIMIT " + PAGE_SIZE)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getString(1);
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long count(Connection connection, String where, List<String> params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM " + TABLE + where)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, List<String> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            statement.setString(i + 1, params.get(i));
+        }
+    }
+
+    private static int intVariable(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @@" + name)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static double mean(long[] nanos) {
+        return Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+    }
+
+    private static double p95(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * 0.95) - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,231 @@
+package com.indigo.iam.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.indigo.core.entity.result.PageResult;
+import com.indigo.foundation.common.query.KeysetPageResult;
+import com.indigo.iam.repository.entity.IamResource;
+import com.indigo.iam.repository.mapper.ResourceMapper;
+import com.indigo.iam.repository.service.IMenuService;
+import com.indigo.iam.repository.service.IResourceService;
+import com.indigo.iam.sdk.dto.query.ResourceDTO;
+import com.indigo.iam.sdk.vo.resource.ResourceDetailVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ResourceServiceImpl 资源详情分页总数：单表统计、联查统计、条件缓存与估算总数；
+ * 全文检索条件：MATCH 只用于足够长的关键字且始终保留 LIKE，索引或停用词不满足时回退为 LIKE
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class ResourceServiceImplTest {
+
+    private IResourceService iResourceService;
+    private ResourceMapper mapper;
+    private ResourceServiceImpl service;
+    private QueryWrapper<IamResource> lastCounted;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        iResourceService = mock(IResourceService.class);
+        mapper = mock(ResourceMapper.class);
+        when(iResourceService.getMapper()).thenReturn(mapper);
+        when(mapper.selectResourceDetailPage(any(Page.class), any(QueryWrapper.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        service = new ResourceServiceImpl(iResourceService, mock(IMenuService.class));
+    }
+
+    @Test
+    void resourceFiltersCountResourceTableOnly() {
+        when(mapper.countResources(any())).thenReturn(3L);
+
+        PageResult<ResourceDetailVO> result = service.pageResourceDetail(new ResourceDTO().setCode("user"));
+
+        assertThat(result.getTotal()).isEqualTo(3L);
+        verify(mapper).countResources(any());
+        verify(mapper, never()).countResourceDetail(any());
+    }
+
+    @Test
+    void systemFilterCountsJoinedDetail() {
+        when(mapper.countResourceDetail(any())).thenReturn(2L);
+
+        PageResult<ResourceDetailVO> result = service.pageResourceDetail(new ResourceDTO().setSystemId("sys-1"));
+
+        assertThat(result.getTotal()).isEqualTo(2L);
+        verify(mapper).countResourceDetail(any());
+        verify(mapper, never()).countResources(any());
+    }
+
+    @Test
+    void sameFiltersReuseCachedCount() {
+        when(mapper.countResources(any())).thenReturn(7L);
+
+        service.pageResourceDetail(new ResourceDTO().setName("导出"));
+        PageResult<ResourceDetailVO> again = service.pageResourceDetail(new ResourceDTO().setName("导出"));
+        service.pageResourceDetail(new ResourceDTO().setName("导入"));
+
+        assertThat(again.getTotal()).isEqualTo(7L);
+        verify(mapper, times(2)).countResources(any());
+    }
+
+    @Test
+    void deletingResourceClearsCachedCounts() {
+        when(mapper.countResources(any())).thenReturn(7L, 6L);
+        when(iResourceService.getById("r1")).thenReturn(new IamResource());
+        when(iResourceService.removeById("r1")).thenReturn(true);
+
+        service.pageResourceDetail(new ResourceDTO().setName("导出"));
+        service.deleteResource("r1");
+        PageResult<ResourceDetailVO> afterDelete = service.pageResourceDetail(new ResourceDTO().setName("导出"));
+
+        assertThat(afterDelete.getTotal()).isEqualTo(6L);
+        verify(mapper, times(2)).countResources(any());
+    }
+
+    @Test
+    void unfilteredLargeTableUsesEstimate() {
+        ReflectionTestUtils.setField(service, "estimateCountThreshold", 100_000L);
+        when(mapper.estimateResourceRows()).thenReturn(500_000L);
+
+        PageResult<ResourceDetailVO> result = service.pageResourceDetail(new ResourceDTO());
+
+        assertThat(result.getTotal()).isEqualTo(500_000L);
+        verify(mapper, never()).countResources(any());
+    }
+
+    @Test
+    void estimateBelowThresholdFallsBackToExactCount() {
+        ReflectionTestUtils.setField(service, "estimateCountThreshold", 100_000L);
+        when(mapper.estimateResourceRows()).thenReturn(800L);
+        when(mapper.countResources(any())).thenReturn(795L);
+
+        assertThat(service.pageResourceDetail(new ResourceDTO()).getTotal()).isEqualTo(795L);
+    }
+
+    @Test
+    void filteredQueryNeverUsesEstimate() {
+        ReflectionTestUtils.setField(service, "estimateCountThreshold", 100_000L);
+        when(mapper.countResources(any())).thenReturn(4L);
+
+        assertThat(service.pageResourceDetail(new ResourceDTO().setType("BUTTON")).getTotal()).isEqualTo(4L);
+        verify(mapper, never()).estimateResourceRows();
+    }
+
+    @Test
+    void searchCountFalseSkipsCount() {
+        ResourceDTO query = new ResourceDTO();
+        query.setSearchCount(false);
+
+        PageResult<ResourceDetailVO> result = service.pageResourceDetail(query);
+
+        assertThat(result.getTotal()).isEqualTo(KeysetPageResult.TOTAL_NOT_COUNTED);
+        verify(mapper, never()).countResources(any());
+        verify(mapper, never()).countResourceDetail(any());
+        verify(mapper, never()).estimateResourceRows();
+    }
+
+    @Test
+    void fulltextKeywordAddsMatchAndKeepsLike() {
+        enableFulltext();
+
+        String sql = countedSql(new ResourceDTO().setCode("report"));
+
+        assertThat(sql).contains("MATCH(res.code) AGAINST(").contains("IN BOOLEAN MODE").contains("res.code LIKE");
+        assertThat(countedParams()).contains("\"report\"", "%report%");
+    }
+
+    @Test
+    void keywordShorterThanNgramTokenUsesLikeOnly() {
+        enableFulltext();
+
+        String sql = countedSql(new ResourceDTO().setPermissions("a"));
+
+        assertThat(sql).doesNotContain("MATCH").contains("res.permissions LIKE");
+    }
+
+    @Test
+    void ngramLengthCountsCodePoints() {
+        enableFulltext();
+        ReflectionTestUtils.setField(service, "ngramTokenSize", 3);
+
+        assertThat(countedSql(new ResourceDTO().setName("用户"))).doesNotContain("MATCH");
+        assertThat(countedSql(new ResourceDTO().setName("报表导出"))).contains("MATCH(res.name) AGAINST(");
+    }
+
+    @Test
+    void quotesAreStrippedFromMatchPhrase() {
+        enableFulltext();
+
+        countedSql(new ResourceDTO().setCode("\"report\""));
+
+        assertThat(countedParams()).contains("\"report\"").doesNotContain("\"\"report\"\"");
+    }
+
+    @Test
+    void fulltextDisabledUsesLikeOnly() {
+        assertThat(countedSql(new ResourceDTO().setCode("report"))).doesNotContain("MATCH").contains("res.code LIKE");
+    }
+
+    @Test
+    void missingIndexesFallBackToLike() {
+        ReflectionTestUtils.setField(service, "fulltextSearch", true);
+        when(mapper.countFulltextIndexes()).thenReturn(2);
+
+        service.verifyFulltextSearch();
+
+        assertThat(countedSql(new ResourceDTO().setCode("report"))).doesNotContain("MATCH");
+        verify(mapper, never()).fulltextStopwordEnabled();
+    }
+
+    @Test
+    void enabledStopwordsFallBackToLike() {
+        ReflectionTestUtils.setField(service, "fulltextSearch", true);
+        when(mapper.countFulltextIndexes()).thenReturn(3);
+        when(mapper.fulltextStopwordEnabled()).thenReturn(true);
+
+        service.verifyFulltextSearch();
+
+        assertThat(countedSql(new ResourceDTO().setCode("report"))).doesNotContain("MATCH");
+    }
+
+    private void enableFulltext() {
+        ReflectionTestUtils.setField(service, "fulltextSearch", true);
+        when(mapper.countFulltextIndexes()).thenReturn(3);
+        when(mapper.fulltextStopwordEnabled()).thenReturn(false);
+        service.verifyFulltextSearch();
+    }
+
+    /**
+     * 查询并返回统计总数时使用的条件 SQL 片段
+     */
+    @SuppressWarnings("unchecked")
+    private String countedSql(ResourceDTO query) {
+        when(mapper.countResources(any())).thenReturn(1L);
+        service.pageResourceDetail(query);
+        ArgumentCaptor<QueryWrapper<IamResource>> filters = ArgumentCaptor.forClass(QueryWrapper.class);
+        verify(mapper, atLeastOnce()).countResources(filters.capture());
+        lastCounted = filters.getValue();
+        return lastCounted.getSqlSegment();
+    }
+
+    private Collection<Object> countedParams() {
+        return lastCounted.getParamNameValuePairs().values();
+    }
+}
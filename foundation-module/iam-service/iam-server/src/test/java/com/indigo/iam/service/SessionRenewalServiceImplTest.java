@@ -0,0 +1,138 @@
+package com.indigo.iam.service;
+
+import com.indigo.cache.manager.CacheKeyGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * SessionRenewalServiceImpl 批量检查剩余时间与续期
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class SessionRenewalServiceImplTest {
+
+    private static final long THRESHOLD = 600;
+    private static final long RENEWAL = 7200;
+
+    /**
+     * 会话 key -> 剩余时间（秒），不存在的 key 按 -2 返回
+     */
+    private final Map<String, Long> ttls = new HashMap<>();
+    private final List<String> ttlQueries = new ArrayList<>();
+    private final List<String> expired = new ArrayList<>();
+    private int ttlPipelines;
+
+    private SessionRenewalServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            List<Object> results = new ArrayList<>();
+            StringRedisConnection connection = mock(StringRedisConnection.class, call -> {
+                switch (call.getMethod().getName()) {
+                    case "ttl" -> {
+                        String key = call.getArgument(0);
+                        ttlQueries.add(key);
+                        results.add(ttls.getOrDefault(key, -2L));
+                    }
+                    case "expire" -> expired.add(call.getArgument(0) + "=" + call.getArgument(1));
+                    default -> {
+                    }
+                }
+                return null;
+            });
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            if (!results.isEmpty()) {
+                ttlPipelines++;
+            }
+            return results;
+        });
+        CacheKeyGenerator keyGenerator = mock(CacheKeyGenerator.class);
+        when(keyGenerator.generate(eq(CacheKeyGenerator.Module.USER), anyString(), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(1) + ":" + invocation.getArgument(2));
+        // 定时刷新间隔足够长，由测试手动 flush
+        service = new SessionRenewalServiceImpl(redisTemplate, keyGenerator, THRESHOLD, RENEWAL, 3_600_000, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ttls.clear();
+        service.shutdown();
+    }
+
+    @Test
+    void onlySessionsBelowThresholdAreRenewedAcrossAllSessionKeys() {
+        ttls.put("session:expiring", 100L);
+        ttls.put("session:fresh", 5_000L);
+        service.touch("expiring");
+        service.touch("fresh");
+        service.touch("missing");
+
+        service.flush();
+
+        assertThat(ttlQueries).containsExactlyInAnyOrder("session:expiring", "session:fresh", "session:missing");
+        assertThat(expired).containsExactlyInAnyOrder(
+                "session:expiring=7200", "roles:expiring=7200", "permissions:expiring=7200", "menus:expiring=7200",
+                "resources:expiring=7200", "systems:expiring=7200", MenuTreeDigestService.KEY_TYPE + ":expiring=7200");
+    }
+
+    @Test
+    void checkedSessionsAreSkippedUntilNextCheckButMissingOnesAreNot() {
+        ttls.put("session:expiring", 100L);
+        ttls.put("session:fresh", 5_000L);
+        service.touch("expiring");
+        service.touch("fresh");
+        service.touch("missing");
+        service.flush();
+        ttlQueries.clear();
+
+        service.touch("expiring");
+        service.touch("fresh");
+        service.touch("missing");
+        service.flush();
+
+        assertThat(ttlQueries).containsExactly("session:missing");
+    }
+
+    @Test
+    void tokensAreCheckedInBatches() {
+        service.touch("a");
+        service.touch("b");
+        service.touch("c");
+
+        service.flush();
+
+        assertThat(ttlQueries).hasSize(3);
+        assertThat(ttlPipelines).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedTouchesBeforeFlushAreCheckedOnce() {
+        for (int i = 0; i < 10; i++) {
+            service.touch("same");
+        }
+
+        service.flush();
+
+        assertThat(ttlQueries).containsExactly("session:same");
+    }
+}
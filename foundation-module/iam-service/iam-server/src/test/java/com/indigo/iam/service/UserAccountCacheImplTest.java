@@ -0,0 +1,99 @@
+package com.indigo.iam.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.indigo.iam.repository.entity.Users;
+import com.indigo.iam.repository.service.IUsersService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserAccountCacheImpl 账号到用户 ID 的缓存、负缓存与失效
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class UserAccountCacheImplTest {
+
+    private IUsersService iUsersService;
+    private UserAccountCacheImpl cache;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper 按实体元数据解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Users.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        iUsersService = mock(IUsersService.class);
+        cache = new UserAccountCacheImpl(iUsersService, 100, 300, 30);
+    }
+
+    @Test
+    void knownAccountIsLoadedOnceAndMatchedCaseInsensitively() {
+        givenUser("u1");
+
+        assertThat(cache.findUserId("Alice")).contains("u1");
+        assertThat(cache.findUserId(" alice ")).contains("u1");
+
+        verify(iUsersService, times(1)).getOne(any(Wrapper.class));
+    }
+
+    @Test
+    void unknownAccountIsNegativelyCachedUntilInvalidated() {
+        givenUser(null);
+
+        assertThat(cache.findUserId("ghost")).isEmpty();
+        assertThat(cache.findUserId("ghost")).isEmpty();
+        verify(iUsersService, times(1)).getOne(any(Wrapper.class));
+
+        // 新增用户后清除负缓存
+        cache.invalidate("GHOST");
+        givenUser("u2");
+        assertThat(cache.findUserId("ghost")).contains("u2");
+    }
+
+    @Test
+    void takenByOtherOnlyForKnownAccountsOfAnotherUser() {
+        givenUser("u1");
+        assertThat(cache.isKnownTakenByOther("alice", null)).isFalse();
+
+        cache.findUserId("alice");
+
+        assertThat(cache.isKnownTakenByOther("ALICE", "u2")).isTrue();
+        assertThat(cache.isKnownTakenByOther("alice", "u1")).isFalse();
+        assertThat(cache.isKnownTakenByOther(null, "u2")).isFalse();
+    }
+
+    @Test
+    void invalidateUserDropsItsAccountMapping() {
+        givenUser("u1");
+        cache.findUserId("alice");
+
+        cache.invalidateUser("u1");
+
+        assertThat(cache.isKnownTakenByOther("alice", "u2")).isFalse();
+        cache.findUserId("alice");
+        verify(iUsersService, times(2)).getOne(any(Wrapper.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenUser(String id) {
+        Users user = id != null ? new Users().setAccount("alice") : null;
+        if (user != null) {
+            user.setId(id);
+        }
+        when(iUsersService.getOne(any(Wrapper.class))).thenReturn(user);
+    }
+}
@@ -0,0 +1,179 @@
+package com.indigo.iam.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.indigo.iam.repository.entity.Users;
+import com.indigo.iam.repository.service.IUsersService;
+import com.indigo.iam.sdk.vo.users.UserImportResultVO;
+import com.indigo.iam.sdk.vo.users.UserImportResultVO.RowError;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserImportServiceImpl 重复账号处理：文件内重复、库中已存在、批量写入与并发导入冲突
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class UserImportServiceImplTest {
+
+    private IUsersService iUsersService;
+    private PasswordHasher passwordHasher;
+    private UserAccountCache userAccountCache;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper 按实体元数据解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Users.class);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        iUsersService = mock(IUsersService.class);
+        passwordHasher = mock(PasswordHasher.class);
+        when(passwordHasher.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        userAccountCache = mock(UserAccountCache.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(iUsersService.saveBatch(anyCollection(), anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void duplicateAccountInFileIsRejectedCaseInsensitively() throws IOException {
+        UserImportResultVO result = service(100).importUsers(csv("""
+                account,realName,password
+                alice,Alice,pw1
+                ALICE,Alice Again,pw2
+                bob,Bob,
+                """));
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(RowError::getLine, RowError::getAccount, RowError::getMessage)
+                .containsExactly(tuple(3L, "ALICE", "文件内账号重复"));
+        assertThat(savedAccounts()).containsExactly("alice", "bob");
+        // 未填写密码的行使用默认密码
+        verify(passwordHasher).encode("123456");
+        verify(passwordHasher, never()).encode("pw2");
+    }
+
+    @Test
+    void duplicateAcrossBatchesIsStillRejected() throws IOException {
+        UserImportResultVO result = service(2).importUsers(csv("""
+                account
+                alice
+                bob
+                Alice
+                carol
+                """));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(RowError::getLine, RowError::getMessage)
+                .containsExactly(tuple(4L, "文件内账号重复"));
+        verify(iUsersService, times(2)).saveBatch(anyCollection(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void existingAccountIsRejectedWithoutHashingOrSaving() throws IOException {
+        when(iUsersService.list(any(Wrapper.class))).thenReturn(List.of(new Users().setAccount("BOB")));
+
+        UserImportResultVO result = service(100).importUsers(csv("""
+                account,password
+                alice,pw-alice
+                bob,pw-bob
+                """));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(RowError::getLine, RowError::getAccount, RowError::getMessage)
+                .containsExactly(tuple(3L, "bob", "账号已存在"));
+        assertThat(savedAccounts()).containsExactly("alice");
+        verify(passwordHasher, never()).encode("pw-bob");
+        verify(iUsersService, times(1)).list(any(Wrapper.class));
+    }
+
+    @Test
+    void concurrentDuplicateFallsBackToRowByRowSave() throws IOException {
+        when(iUsersService.saveBatch(anyCollection(), anyInt())).thenThrow(new DuplicateKeyException("uk_active_account"));
+        when(iUsersService.save(argThat(user -> user != null && "bob".equals(user.getAccount()))))
+                .thenThrow(new DuplicateKeyException("uk_active_account"));
+        when(iUsersService.save(argThat(user -> user != null && !"bob".equals(user.getAccount())))).thenReturn(true);
+
+        UserImportResultVO result = service(100).importUsers(csv("""
+                account
+                alice
+                bob
+                carol
+                """));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(RowError::getLine, RowError::getAccount, RowError::getMessage)
+                .containsExactly(tuple(3L, "bob", "账号已存在"));
+        verify(userAccountCache).invalidate("alice");
+        verify(userAccountCache).invalidate("carol");
+        verify(userAccountCache, never()).invalidate("bob");
+    }
+
+    @Test
+    void bomPrefixedFileIsImportedAndAccountCacheEvicted() throws IOException {
+        UserImportResultVO result = service(100).importUsers(csv("\uFEFFaccount\nalice\n"));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        verify(userAccountCache).invalidate("alice");
+    }
+
+    private UserImportServiceImpl service(int batchSize) {
+        return new UserImportServiceImpl(iUsersService, passwordHasher, userAccountCache, transactionTemplate,
+                batchSize, 100_000, 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> savedAccounts() {
+        ArgumentCaptor<Collection<Users>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(iUsersService, atLeastOnce()).saveBatch(batches.capture(), anyInt());
+        List<String> accounts = new ArrayList<>();
+        batches.getAllValues().forEach(batch -> batch.forEach(user -> accounts.add(user.getAccount())));
+        return accounts;
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
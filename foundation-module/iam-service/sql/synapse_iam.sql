@@ -17,6 +17,33 @@
 SET NAMES utf8mb4;
 SET FOREIGN_KEY_CHECKS = 0;
 
+-- ----------------------------
+-- Table structure for iam_api_key
+-- ----------------------------
+DROP TABLE IF EXISTS `iam_api_key`;
+CREATE TABLE `iam_api_key` (
+  `id` varchar(19) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '主键',
+  `name` varchar(255) COLLATE utf8mb4_general_ci NOT NULL COMMENT '第三方平台名称',
+  `key_hash` varchar(64) COLLATE utf8mb4_general_ci NOT NULL COMMENT 'API Key 的 SHA-256 摘要（不存明文）',
+  `enabled` tinyint NOT NULL DEFAULT '1' COMMENT '是否启用 0:否、1:是',
+  `expire_time` datetime DEFAULT NULL COMMENT '过期时间，为空表示永不过期',
+  `description` varchar(255) COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT '描述',
+  `create_user` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT '创建用户',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `modify_user` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT '修改用户',
+  `modify_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `revision` int NOT NULL DEFAULT '1' COMMENT '版本号',
+  `deleted` tinyint NOT NULL DEFAULT '1' COMMENT '软删标识 1:未删除、0:已删除',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_key_hash` (`key_hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='第三方平台 API Key 表';
+
+-- ----------------------------
+-- Records of iam_api_key
+-- ----------------------------
+BEGIN;
+COMMIT;
+
 -- ----------------------------
 -- Table structure for iam_menu
 -- ----------------------------
@@ -50,6 +77,12 @@ COMMIT;
 -- ----------------------------
 -- Table structure for iam_resources
 -- ----------------------------
+-- 全文索引（ft_code、ft_name、ft_permissions）使用 ngram 分词，建表前须关闭内置停用词：
+--   在 my.cnf 中配置 innodb_ft_enable_stopword = OFF（或将 innodb_ft_server_stopword_table 指向空表），
+--   服务启动时按该全局配置校验，下方 SET SESSION 只保证本脚本建出的索引不含停用词过滤
+-- 否则包含 "a"、"i" 等停用词的词元不入索引，MATCH 检索会漏掉 LIKE 能查到的行；
+-- 已按默认配置建好的索引需在关闭停用词后 DROP INDEX 并重新创建
+SET SESSION innodb_ft_enable_stopword = OFF;
 DROP TABLE IF EXISTS `iam_resources`;
 CREATE TABLE `iam_resources` (
   `id` varchar(19) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '主键',
@@ -66,7 +99,11 @@ CREATE TABLE `iam_resources` (
   `modify_time` datetime DEFAULT NULL COMMENT '修改时间',
   `revision` int NOT NULL DEFAULT '1' COMMENT '版本号',
   `deleted` tinyint NOT NULL DEFAULT '1' COMMENT '软删标识 1:未删除、0:已删除',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_deleted_create_time` (`deleted`, `create_time`, `id`) COMMENT '游标分页',
+  FULLTEXT KEY `ft_code` (`code`) WITH PARSER ngram COMMENT '编码检索',
+  FULLTEXT KEY `ft_name` (`name`) WITH PARSER ngram COMMENT '名称检索',
+  FULLTEXT KEY `ft_permissions` (`permissions`) WITH PARSER ngram COMMENT '权限编码检索'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='资源表';
 
 -- ----------------------------
@@ -90,7 +127,8 @@ CREATE TABLE `iam_role` (
   `modify_time` datetime DEFAULT NULL COMMENT '修改时间',
   `revision` int NOT NULL DEFAULT '1' COMMENT '版本号',
   `deleted` tinyint NOT NULL DEFAULT '1' COMMENT '软删标识 1:未删除、0:已删除',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_deleted_create_time` (`deleted`, `create_time`, `id`) COMMENT '游标分页'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='角色表';
 
 -- ----------------------------
@@ -209,7 +247,10 @@ CREATE TABLE `iam_user` (
   `modify_time` datetime DEFAULT NULL COMMENT '修改时间',
   `revision` int NOT NULL DEFAULT '1' COMMENT '版本号',
   `deleted` tinyint NOT NULL DEFAULT '1' COMMENT '软删标识 1:未删除、0:已删除',
-  PRIMARY KEY (`id`)
+  `active_account` varchar(255) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 1, `account`, NULL)) VIRTUAL COMMENT '未删除的账号（唯一索引用，已删除时为 NULL）',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_active_account` (`active_account`) COMMENT '未删除账号唯一，已软删记录不参与',
+  KEY `idx_deleted_create_time` (`deleted`, `create_time`, `id`) COMMENT '游标分页'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='用户表';
 
 -- ----------------------------
@@ -0,0 +1,13 @@
+-- ----------------------------
+-- iam_user：未删除账号唯一索引，并发新增、批量导入时由数据库保证账号唯一
+-- 唯一索引建在生成列 active_account 上（已软删时为 NULL），已软删的历史记录全部保留、不参与唯一性校验
+-- 已按 synapse_iam.sql 新建的库无需执行
+-- ----------------------------
+
+-- 1. 检查未删除（deleted = 1）的重复账号，需人工处理至查询结果为空后再执行第 2 步
+SELECT `account`, COUNT(*) FROM `iam_user` WHERE `deleted` = 1 GROUP BY `account` HAVING COUNT(*) > 1;
+
+-- 2. 添加生成列及唯一索引
+ALTER TABLE `iam_user`
+  ADD COLUMN `active_account` varchar(255) COLLATE utf8mb4_general_ci GENERATED ALWAYS AS (IF(`deleted` = 1, `account`, NULL)) VIRTUAL COMMENT '未删除的账号（唯一索引用，已删除时为 NULL）' AFTER `deleted`,
+  ADD UNIQUE KEY `uk_active_account` (`active_account`) COMMENT '未删除账号唯一，已软删记录不参与';
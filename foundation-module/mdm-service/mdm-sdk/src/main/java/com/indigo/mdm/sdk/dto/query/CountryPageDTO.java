@@ -1,8 +1,8 @@
 package com.indigo.mdm.sdk.dto.query;
 
 import com.indigo.core.annotation.QueryCondition;
-import com.indigo.core.entity.dto.PageDTO;
 import com.indigo.core.entity.dto.QueryDTO;
+import com.indigo.foundation.common.query.KeysetPageQuery;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -20,7 +20,7 @@ import lombok.experimental.SuperBuilder;
 @Accessors(chain = true)
 @AllArgsConstructor
 @NoArgsConstructor
-public class CountryPageDTO extends PageDTO<String> {
+public class CountryPageDTO extends KeysetPageQuery<String> {
 
     @QueryCondition(field = "name", type = QueryCondition.QueryType.LIKE)
     private String name;
@@ -0,0 +1,29 @@
+package com.indigo.mdm.sdk.dto.query;
+
+import com.indigo.core.annotation.QueryCondition;
+import com.indigo.core.entity.dto.QueryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * @author 史偕成
+ * @date 2025/12/02
+ **/
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@Accessors(chain = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class LanguageQueryDTO extends QueryDTO<String> {
+
+    @QueryCondition(field = "code", type = QueryCondition.QueryType.LIKE)
+    private String code;
+
+    @QueryCondition(field = "enabled", type = QueryCondition.QueryType.EQ)
+    private Boolean enabled;
+}
@@ -0,0 +1,28 @@
+package com.indigo.mdm.sdk.vo;
+
+import com.indigo.core.entity.vo.BaseVO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * @author 史偕成
+ * @date 2025/12/02
+ **/
+@EqualsAndHashCode(callSuper = true)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class LanguageVO extends BaseVO<String> {
+
+    private String code;
+
+    private String name;
+
+    private Boolean sysDefault;
+
+    private Boolean enabled;
+}
@@ -2,6 +2,8 @@ package com.indigo.mdm.controller;
 
 import com.indigo.core.entity.Result;
 import com.indigo.core.entity.result.PageResult;
+import com.indigo.foundation.common.query.KeysetPageResult;
+import com.indigo.foundation.common.repository.KeysetPagination;
 import com.indigo.mdm.repository.service.ICountryService;
 import com.indigo.mdm.sdk.dto.CountryDTO;
 import com.indigo.mdm.sdk.dto.query.CountryPageDTO;
@@ -37,7 +39,7 @@ public class CountryController {
 
     @DeleteMapping("/remove")
     public Result<Boolean> remove(@Valid @NotEmpty @RequestBody List<String> ids) {
-        return Result.success(iCountryService.removeBatchByIds(ids));
+        return Result.success(countryService.remove(ids));
     }
 
     @PostMapping("/list")
@@ -54,4 +56,9 @@ public class CountryController {
     public Result<PageResult<CountryVO>> page(@RequestBody CountryPageDTO params) {
         return Result.success(iCountryService.pageWithCondition(params, CountryVO.class));
     }
+
+    @PostMapping("/keysetPage")
+    public Result<KeysetPageResult<CountryVO>> keysetPage(@RequestBody CountryPageDTO params) {
+        return Result.success(KeysetPagination.page(iCountryService, params, params.getPageSize(), CountryVO.class));
+    }
 }
@@ -0,0 +1,44 @@
+package com.indigo.mdm.controller;
+
+import com.indigo.core.entity.Result;
+import com.indigo.mdm.repository.service.ILangugaeService;
+import com.indigo.mdm.sdk.dto.LanguageDTO;
+import com.indigo.mdm.sdk.dto.query.LanguageQueryDTO;
+import com.indigo.mdm.sdk.vo.LanguageVO;
+import com.indigo.mdm.service.LanguageService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * @author 史偕成
+ * @date 2025/12/02
+ **/
+@RestController
+@RequestMapping("/language")
+@RequiredArgsConstructor
+public class LanguageController {
+
+    private final LanguageService languageService;
+
+    private final ILangugaeService iLangugaeService;
+
+    /**
+     * 新增或修改语言（清除网关缓存的语言列表）
+     */
+    @PostMapping("/addOrModify")
+    public Result<Boolean> addOrModify(@Valid @RequestBody LanguageDTO param) {
+        return Result.success(languageService.addOrModify(param));
+    }
+
+    /**
+     * 语言列表
+     * Gateway 使用启用的语言列表进行 Accept-Language 协商
+     */
+    @PostMapping("/list")
+    public Result<List<LanguageVO>> list(@RequestBody LanguageQueryDTO params) {
+        return Result.success(iLangugaeService.listWithDTO(params, LanguageVO.class));
+    }
+}
@@ -1,5 +1,6 @@
 package com.indigo.mdm.repository.entity;
 
+import com.baomidou.mybatisplus.annotation.TableName;
 import com.indigo.databases.entity.AuditEntity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,6 +19,7 @@ import lombok.experimental.SuperBuilder;
 @Accessors(chain = true)
 @AllArgsConstructor
 @NoArgsConstructor
+@TableName("mdm_language")
 public class Language extends AuditEntity<String> {
 
     private String code;
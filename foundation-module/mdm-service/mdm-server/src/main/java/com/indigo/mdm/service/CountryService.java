@@ -2,6 +2,7 @@ package com.indigo.mdm.service;
 
 import cn.hutool.core.util.StrUtil;
 import com.indigo.core.exception.Ex;
+import com.indigo.foundation.common.cache.GatewayCacheService;
 import com.indigo.mdm.repository.entity.Country;
 import com.indigo.mdm.repository.service.ICountryService;
 import com.indigo.mdm.sdk.dto.CountryDTO;
@@ -11,6 +12,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * @author 史偕成
  * @date 2025/09/26 11:15
@@ -25,6 +28,13 @@ public interface CountryService {
      */
     Boolean addOrModify(CountryDTO param);
 
+    /**
+     * 批量删除
+     *
+     * @param ids 主键
+     * @return Boolean
+     */
+    Boolean remove(List<String> ids);
 
 }
 
@@ -35,6 +45,8 @@ class CountryServiceImpl implements CountryService {
 
     private final ICountryService countryService;
 
+    private final GatewayCacheService gatewayCacheService;
+
     @Override
     public Boolean addOrModify(CountryDTO param) {
         if (countryService.checkKeyUniqueness(param, "code")) {
@@ -43,14 +55,25 @@ class CountryServiceImpl implements CountryService {
         if (StrUtil.isBlank(param.getId())) {
             Country country = Country.builder().build();
             BeanUtils.copyProperties(param, country);
-            return countryService.save(country);
+            boolean saved = countryService.save(country);
+            gatewayCacheService.evict(GatewayCacheService.TAG_COUNTRY);
+            return saved;
         } else {
             Country country = this.countryService.getById(param.getId());
             if (country == null) {
                 Ex.throwEx(MdmError.COUNTRY_NOT_FOUND);
             }
             country.setName(param.getName());
-            return countryService.updateById(country);
+            boolean updated = countryService.updateById(country);
+            gatewayCacheService.evict(GatewayCacheService.TAG_COUNTRY);
+            return updated;
         }
     }
+
+    @Override
+    public Boolean remove(List<String> ids) {
+        boolean removed = countryService.removeBatchByIds(ids);
+        gatewayCacheService.evict(GatewayCacheService.TAG_COUNTRY);
+        return removed;
+    }
 }
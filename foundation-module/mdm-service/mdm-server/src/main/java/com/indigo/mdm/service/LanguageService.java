@@ -2,6 +2,7 @@ package com.indigo.mdm.service;
 
 import cn.hutool.core.util.StrUtil;
 import com.indigo.core.exception.Ex;
+import com.indigo.foundation.common.cache.GatewayCacheService;
 import com.indigo.mdm.repository.entity.Country;
 import com.indigo.mdm.repository.entity.Language;
 import com.indigo.mdm.repository.mapper.LanguageMapper;
@@ -29,6 +30,8 @@ class LanguageServiceImpl implements LanguageService {
 
     private final ILangugaeService iLangugaeService;
 
+    private final GatewayCacheService gatewayCacheService;
+
     @Override
     public boolean addOrModify(LanguageDTO param) {
         if (iLangugaeService.checkKeyUniqueness(param, "code")) {
@@ -37,14 +40,18 @@ class LanguageServiceImpl implements LanguageService {
         if (StrUtil.isBlank(param.getId())) {
             Language language = Language.builder().build();
             BeanUtils.copyProperties(param, language);
-            return iLangugaeService.save(language);
+            boolean saved = iLangugaeService.save(language);
+            gatewayCacheService.evict(GatewayCacheService.TAG_LANGUAGE);
+            return saved;
         } else {
             Language language = this.iLangugaeService.getById(param.getId());
             if (language == null) {
                 Ex.throwEx(MdmError.LANGUAGE_NOT_EXIST);
             }
             language.setName(param.getName());
-            return iLangugaeService.updateById(language);
+            boolean updated = iLangugaeService.updateById(language);
+            gatewayCacheService.evict(GatewayCacheService.TAG_LANGUAGE);
+            return updated;
         }
     }
 }
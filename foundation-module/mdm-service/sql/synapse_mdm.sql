@@ -32,7 +32,8 @@ CREATE TABLE `mdm_country` (
   `modify_time` datetime DEFAULT NULL COMMENT '修改时间',
   `deleted` tinyint DEFAULT '1' COMMENT '软删标识 0:否、1:是',
   `revision` int DEFAULT '1' COMMENT '乐观锁',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_deleted_create_time` (`deleted`, `create_time`, `id`) COMMENT '游标分页'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='国家表';
 
 -- ----------------------------
@@ -76,7 +77,7 @@ CREATE TABLE `mdm_language` (
   `code` varchar(16) COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT '语言编码',
   `name` varchar(255) COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT '语言名称',
   `sys_default` tinyint DEFAULT '0' COMMENT '默认系统 0:否、1:是',
-  `enabed` tinyint DEFAULT '1' COMMENT '状态 0:停用、1:启用',
+  `enabled` tinyint DEFAULT '1' COMMENT '状态 0:停用、1:启用',
   `create_user` varchar(19) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT '创建人',
   `create_time` datetime DEFAULT NULL COMMENT '创建时间',
   `modify_user` varchar(19) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT '修改人',
@@ -0,0 +1,6 @@
+-- ----------------------------
+-- mdm_language：修正拼写错误的列名 enabed -> enabled（与 Language.enabled 映射一致）
+-- 已按 synapse_mdm.sql 新建的库无需执行
+-- ----------------------------
+ALTER TABLE `mdm_language`
+  CHANGE COLUMN `enabed` `enabled` tinyint DEFAULT '1' COMMENT '状态 0:停用、1:启用';
@@ -7,7 +7,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Gateway 核心配置类
@@ -59,6 +61,21 @@ public class GatewayConfig {
      */
     private LocaleConfig locale = new LocaleConfig();
 
+    /**
+     * 访问日志配置
+     */
+    private AccessLogConfig accessLog = new AccessLogConfig();
+
+    /**
+     * 负载均衡配置
+     */
+    private LoadBalancerConfig loadBalancer = new LoadBalancerConfig();
+
+    /**
+     * 网关到下游服务的 HTTP 客户端配置
+     */
+    private HttpClientConfig httpClient = new HttpClientConfig();
+
 
     @Data
     public static class ThirdPartyConfig {
@@ -81,6 +98,36 @@ public class GatewayConfig {
          * 第三方平台认证超时时间（秒）
          */
         private int timeout = 30;
+
+        /**
+         * IAM API Key 校验地址
+         */
+        private String validateUri = "lb://iam-service/apiKey/validate";
+
+        /**
+         * 透传给下游服务的第三方平台标识请求头
+         */
+        private String clientIdHeader = "X-Client-Id";
+
+        /**
+         * 有效 Key 的本地缓存时间（秒）
+         */
+        private int cacheTtl = 300;
+
+        /**
+         * 无效 Key 的本地缓存时间（秒），用于吸收错误 Key 的重复请求
+         */
+        private int negativeCacheTtl = 30;
+
+        /**
+         * 缓存后台刷新间隔（秒），超过该时间的条目在下次访问时异步向 IAM 重新校验
+         */
+        private int refreshAfter = 60;
+
+        /**
+         * 本地缓存最大条目数
+         */
+        private long cacheMaximumSize = 10_000;
     }
 
     @Data
@@ -187,6 +234,146 @@ public class GatewayConfig {
          * false: 只允许常见的语言环境
          */
         private boolean allowUnknownLocales = true;
+
+        /**
+         * 支持语言列表接口（mdm-service），用于 Accept-Language 协商
+         * 为空时不做协商，直接取权重最高的语言
+         */
+        private String supportedLanguagesUri = "lb://mdm-service/language/list";
+
+        /**
+         * 支持语言列表刷新间隔（秒）
+         */
+        private int supportedLanguagesRefreshInterval = 300;
+
+        /**
+         * 语言环境解析结果缓存的最大条目数（原始请求头值 -> Locale）
+         */
+        private long cacheMaximumSize = 1_000;
+    }
+
+    @Data
+    public static class AccessLogConfig {
+        /**
+         * 是否启用访问日志
+         */
+        private boolean enabled = true;
+
+        /**
+         * 成功请求（2xx/3xx）的采样率，0 ~ 1
+         * 4xx/5xx、异常和慢请求始终记录
+         */
+        private double successSampleRate = 0.1;
+
+        /**
+         * 慢请求阈值（毫秒），超过该耗时的请求始终记录
+         */
+        private long slowThresholdMs = 1_000;
+
+        /**
+         * 环形缓冲区容量（向上取整为 2 的幂），缓冲区满时丢弃并计数
+         */
+        private int bufferSize = 8_192;
+
+        /**
+         * 后台写线程在缓冲区为空时的休眠间隔（毫秒）
+         */
+        private long drainIntervalMs = 50;
+    }
+
+    @Data
+    public static class LoadBalancerConfig {
+        /**
+         * 各下游服务（lb://服务名）使用的负载均衡策略，未配置的服务使用 ROUND_ROBIN
+         */
+        private Map<String, Strategy> strategies = new HashMap<>();
+
+        /**
+         * LEAST_LATENCY：EWMA 延迟衰减时间常数（毫秒），越小对最近的延迟变化越敏感
+         */
+        private long decayTimeMs = 10_000;
+
+        /**
+         * LEAST_LATENCY：调用失败时记入的惩罚延迟（毫秒）
+         */
+        private long failurePenaltyMs = 5_000;
+
+        /**
+         * LEAST_LATENCY：尚无样本的实例按已有样本实例的平均延迟计算代价，所有实例都没有样本时使用该值（毫秒）
+         */
+        private long initialRttMs = 100;
+
+        public enum Strategy {
+            /**
+             * 轮询（Spring Cloud LoadBalancer 默认）
+             */
+            ROUND_ROBIN,
+            /**
+             * 最小延迟：按实例 EWMA 延迟 × (处理中请求数 + 1) 在随机两个实例中择优（power of two choices）
+             */
+            LEAST_LATENCY
+        }
+    }
+
+    @Data
+    public static class HttpClientConfig {
+        /**
+         * 按路由 ID 配置的独立连接池，未配置的路由使用 spring.cloud.gateway.httpclient 的全局连接池
+         */
+        private Map<String, RouteHttpClientConfig> routes = new HashMap<>();
+    }
+
+    @Data
+    public static class RouteHttpClientConfig {
+        /**
+         * 最大连接数（HTTP/2 下为最大连接数，每个连接可多路复用）
+         */
+        private int maxConnections = 200;
+
+        /**
+         * 等待获取连接的最大请求数，超过后立即失败而不是排队
+         */
+        private int pendingAcquireMaxCount = 1_000;
+
+        /**
+         * 等待获取连接的超时时间（毫秒）
+         */
+        private long pendingAcquireTimeoutMs = 5_000;
+
+        /**
+         * 连接最大空闲时间（毫秒），应小于下游服务的 keep-alive 超时，避免复用已被对端关闭的连接
+         */
+        private long maxIdleTimeMs = 30_000;
+
+        /**
+         * 连接最大存活时间（毫秒），实例上下线（发布）后旧连接可以及时淘汰
+         */
+        private long maxLifeTimeMs = 300_000;
+
+        /**
+         * 后台清理空闲 / 过期连接的间隔（毫秒），0 表示不在后台清理
+         */
+        private long evictionIntervalMs = 10_000;
+
+        /**
+         * 连接超时时间（毫秒）
+         */
+        private int connectTimeoutMs = 2_000;
+
+        /**
+         * 配置刷新后旧连接池的优雅关闭时间（毫秒），期间处理中的请求继续使用旧连接直到完成
+         */
+        private long disposeTimeoutMs = 30_000;
+
+        /**
+         * 是否使用 HTTP/2 明文（h2c）连接下游，下游需开启 server.http2.enabled
+         */
+        private boolean h2c = false;
+
+        /**
+         * 是否导出连接池指标（reactor.netty.connection.provider.*）
+         */
+        private boolean metrics = true;
     }
 
-} 
\ No newline at end of file
+}
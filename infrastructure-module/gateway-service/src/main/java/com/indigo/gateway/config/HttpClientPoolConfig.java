@@ -0,0 +1,31 @@
+package com.indigo.gateway.config;
+
+import com.indigo.gateway.filter.PerRouteNettyRoutingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * 网关到下游服务的连接池配置
+ * 注册按路由区分连接池的 NettyRoutingFilter，默认的 NettyRoutingFilter 通过
+ * spring.cloud.gateway.global-filter.netty-routing.enabled=false 关闭
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Configuration
+public class HttpClientPoolConfig {
+
+    @Bean
+    public PerRouteNettyRoutingFilter perRouteNettyRoutingFilter(HttpClient httpClient,
+                                                                 ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                                 HttpClientProperties properties,
+                                                                 GatewayConfig gatewayConfig) {
+        return new PerRouteNettyRoutingFilter(httpClient, headersFilters, properties, gatewayConfig);
+    }
+}
@@ -0,0 +1,42 @@
+package com.indigo.gateway.config;
+
+import com.indigo.gateway.service.LeastLatencyLoadBalancer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 单个下游服务的负载均衡器配置（在 LoadBalancer 子上下文中加载）
+ * 不标注 @Configuration，避免被主上下文组件扫描后对所有服务生效
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+public class LoadBalancerStrategyClientConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            GatewayConfig gatewayConfig) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        GatewayConfig.LoadBalancerConfig.Strategy strategy = gatewayConfig.getLoadBalancer().getStrategies()
+                .getOrDefault(serviceId, GatewayConfig.LoadBalancerConfig.Strategy.ROUND_ROBIN);
+        log.info("负载均衡策略: serviceId={}, strategy={}", serviceId, strategy);
+
+        return switch (strategy) {
+            case LEAST_LATENCY -> new LeastLatencyLoadBalancer(serviceId,
+                    loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                    gatewayConfig);
+            case ROUND_ROBIN -> new RoundRobinLoadBalancer(
+                    loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                    serviceId);
+        };
+    }
+}
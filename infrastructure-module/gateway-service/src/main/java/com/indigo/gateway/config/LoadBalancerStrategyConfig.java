@@ -0,0 +1,17 @@
+package com.indigo.gateway.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 负载均衡策略配置
+ * 为所有 lb:// 下游服务注册 LoadBalancerStrategyClientConfiguration，
+ * 按 synapse.gateway.load-balancer.strategies 为每个服务选择负载均衡器
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerStrategyClientConfiguration.class)
+public class LoadBalancerStrategyConfig {
+}
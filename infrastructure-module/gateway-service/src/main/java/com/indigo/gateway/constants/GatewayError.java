@@ -0,0 +1,44 @@
+package com.indigo.gateway.constants;
+
+import com.indigo.core.constants.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 网关错误码（第三方平台 API Key 认证等网关自有的错误，用户 Token 认证沿用 SecurityError）
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Getter
+@AllArgsConstructor
+public enum GatewayError implements ErrorCode {
+
+    /**
+     * 第三方平台请求缺少 API Key
+     */
+    API_KEY_MISSING("GW001"),
+
+    /**
+     * API Key 无效、已停用或已过期
+     */
+    API_KEY_INVALID("GW002"),
+
+    /**
+     * API Key 校验服务（IAM）暂不可用
+     */
+    API_KEY_UNAVAILABLE("GW003"),
+
+    ;
+    private final String code;
+
+    @Override
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public String getMessageKey() {
+        return ErrorCode.super.getMessageKey();
+    }
+}
@@ -0,0 +1,101 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.service.GatewayMetrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 路由级自适应并发限制过滤器
+ * 按下游 RTT 变化动态调整每条路由允许的并发请求数（见 GradientConcurrencyLimiter），
+ * 超过限制的请求直接抛出 ConcurrencyLimitExceededException，由前置的 CircuitBreaker 过滤器转发到回退路由，
+ * 下游变慢时网关主动削减负载，而不是持续堆积连接
+ *
+ * 配置示例（需放在 CircuitBreaker 之后）：
+ * <pre>
+ * filters:
+ *   - name: CircuitBreaker
+ *     args:
+ *       name: iam-service
+ *       fallbackUri: forward:/fallback/auth
+ *   - name: AdaptiveConcurrency
+ *     args:
+ *       initialLimit: 50
+ * </pre>
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private final GatewayMetrics gatewayMetrics;
+
+    public AdaptiveConcurrencyGatewayFilterFactory(GatewayMetrics gatewayMetrics) {
+        super(Config.class);
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : GatewayMetrics.UNKNOWN_ROUTE;
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(
+                config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(), config.getSmoothing());
+        gatewayMetrics.concurrencyLimiter(routeId, limiter);
+
+        // 不实现 Ordered，按路由配置中的顺序执行（需位于 CircuitBreaker 之后）
+        return (exchange, chain) -> {
+            if (!limiter.tryAcquire()) {
+                gatewayMetrics.concurrencyRejected(routeId);
+                log.warn("路由并发超过自适应限制，拒绝请求: route={}, limit={}, path={}",
+                        routeId, limiter.getLimit(), exchange.getRequest().getURI().getPath());
+                return Mono.error(new ConcurrencyLimitExceededException(routeId, limiter.getLimit()));
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        boolean dropped = signal == SignalType.ON_ERROR
+                                || (status != null && (status.value() == 502 || status.value() == 503
+                                || status.value() == 504));
+                        // 取消（客户端断开、熔断超时）不作为 RTT 样本
+                        long rtt = signal == SignalType.CANCEL ? 0 : System.nanoTime() - start;
+                        limiter.release(rtt, dropped);
+                    });
+        };
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * 初始并发限制
+         */
+        private int initialLimit = 50;
+
+        /**
+         * 最小并发限制
+         */
+        private int minLimit = 10;
+
+        /**
+         * 最大并发限制
+         */
+        private int maxLimit = 500;
+
+        /**
+         * 限制调整平滑系数（0 ~ 1），越大调整越快
+         */
+        private double smoothing = 0.2;
+    }
+}
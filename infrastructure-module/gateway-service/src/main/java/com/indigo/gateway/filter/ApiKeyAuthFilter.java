@@ -0,0 +1,133 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.core.constants.ErrorCode;
+import com.indigo.gateway.config.GatewayConfig;
+import com.indigo.gateway.constants.GatewayError;
+import com.indigo.gateway.handler.UnauthorizedResponseWriter;
+import com.indigo.gateway.service.ApiKeyPrincipal;
+import com.indigo.gateway.service.ApiKeyValidator;
+import com.indigo.security.constants.SecurityConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 第三方平台 API Key 认证过滤器
+ * 第三方平台路径（synapse.gateway.third-party.paths）使用 API Key 认证，不走用户 Token 认证
+ *
+ * 核心逻辑：
+ * 1. 非第三方平台路径直接放行，交给 TokenAuthFilter 处理
+ * 2. 从 apiKeyHeader 请求头提取 API Key
+ * 3. 通过 ApiKeyValidator（本地缓存 + IAM）校验 Key，IAM 不可用时返回 503
+ * 4. 校验通过后移除 API Key 请求头及客户端伪造的网关身份请求头（用户上下文、权限、网关签名），
+ *    注入第三方平台标识，并标记 exchange 已认证（TokenAuthFilter 跳过，不会再覆盖这些请求头）
+ *
+ * @author 史偕成
+ * @date 2025/12/01
+ */
+@Slf4j
+@Component
+public class ApiKeyAuthFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 第三方平台认证结果（exchange attribute），TokenAuthFilter 据此跳过用户 Token 认证
+     */
+    public static final String EXCHANGE_ATTR_API_KEY_PRINCIPAL = "ApiKeyPrincipal";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * IAM 不可用时建议的重试间隔（秒）
+     */
+    private static final String UNAVAILABLE_RETRY_AFTER = "5";
+
+    private final GatewayConfig gatewayConfig;
+    private final ApiKeyValidator apiKeyValidator;
+    private final UnauthorizedResponseWriter unauthorizedResponseWriter;
+
+    public ApiKeyAuthFilter(GatewayConfig gatewayConfig, ApiKeyValidator apiKeyValidator,
+                            UnauthorizedResponseWriter unauthorizedResponseWriter) {
+        this.gatewayConfig = gatewayConfig;
+        this.apiKeyValidator = apiKeyValidator;
+        this.unauthorizedResponseWriter = unauthorizedResponseWriter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.ThirdPartyConfig config = gatewayConfig.getThirdParty();
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getURI().getPath();
+
+        if (!config.isEnabled() || !isThirdPartyPath(config.getPaths(), path)) {
+            return chain.filter(exchange);
+        }
+
+        String apiKey = request.getHeaders().getFirst(config.getApiKeyHeader());
+        if (!StringUtils.hasText(apiKey)) {
+            log.warn("第三方平台请求中未找到 API Key: path={}", path);
+            return unauthorized(exchange, GatewayError.API_KEY_MISSING);
+        }
+
+        return apiKeyValidator.validate(apiKey.trim())
+                .flatMap(principal -> switch (principal.status()) {
+                    case VALID -> {
+                        exchange.getAttributes().put(EXCHANGE_ATTR_API_KEY_PRINCIPAL, principal);
+                        exchange.getAttributes().put(ResponseCacheGatewayFilterFactory.EXCHANGE_ATTR_PERMISSION_FINGERPRINT,
+                                "client:" + principal.id());
+                        exchange.getAttributes().put(ResponseCacheGatewayFilterFactory.EXCHANGE_ATTR_PRINCIPAL,
+                                "client:" + principal.id());
+                        RequestHeaderMutations.of(exchange)
+                                .remove(config.getApiKeyHeader())
+                                .remove(SecurityConstants.X_USER_CONTEXT_HEADER)
+                                .remove(SecurityConstants.X_USER_PERMISSIONS_HEADER)
+                                .remove(SecurityConstants.X_GATEWAY_SIGNATURE_HEADER)
+                                .remove(SecurityConstants.X_GATEWAY_TIMESTAMP_HEADER)
+                                .set(config.getClientIdHeader(), principal.id());
+                        log.debug("API Key 认证成功: clientId={}, name={}, path={}",
+                                principal.id(), principal.name(), path);
+                        yield chain.filter(exchange);
+                    }
+                    case INVALID -> {
+                        log.warn("API Key 无效或已过期: path={}", path);
+                        yield unauthorized(exchange, GatewayError.API_KEY_INVALID);
+                    }
+                    case UNAVAILABLE -> {
+                        // IAM 不可用不代表 Key 失效，返回 503 让调用方重试
+                        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, UNAVAILABLE_RETRY_AFTER);
+                        yield unauthorizedResponseWriter.write(exchange, GatewayError.API_KEY_UNAVAILABLE,
+                                HttpStatus.SERVICE_UNAVAILABLE);
+                    }
+                });
+    }
+
+    private boolean isThirdPartyPath(List<String> patterns, String path) {
+        if (patterns == null || patterns.isEmpty()) {
+            return false;
+        }
+        return patterns.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    /**
+     * 返回未授权响应（预序列化的 Result，见 UnauthorizedResponseWriter）
+     */
+    private Mono<Void> unauthorized(ServerWebExchange exchange, ErrorCode errorCode) {
+        return unauthorizedResponseWriter.write(exchange, errorCode);
+    }
+
+    @Override
+    public int getOrder() {
+        // 在 TokenAuthFilter 之前执行
+        return Ordered.HIGHEST_PRECEDENCE + 90;
+    }
+}
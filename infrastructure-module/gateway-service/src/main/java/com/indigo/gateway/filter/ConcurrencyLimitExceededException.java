@@ -0,0 +1,15 @@
+package com.indigo.gateway.filter;
+
+/**
+ * 路由并发超过自适应限制
+ * 由 CircuitBreaker 路由过滤器转发到对应的回退路由（不计入熔断失败率）
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String routeId, int limit) {
+        super("路由并发超过限制: route=" + routeId + ", limit=" + limit, null, false, false);
+    }
+}
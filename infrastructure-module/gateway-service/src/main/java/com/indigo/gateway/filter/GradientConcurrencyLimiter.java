@@ -0,0 +1,102 @@
+package com.indigo.gateway.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 梯度式自适应并发限制器（Gradient 算法简化版）
+ * 以长期平均 RTT 作为无负载基线，与短期平均 RTT 的比值作为梯度：
+ * 下游变慢（排队）时梯度 < 1，限制随之收缩；下游恢复时限制逐步放大
+ *
+ * newLimit = limit * gradient + sqrt(limit)
+ * limit    = limit * (1 - smoothing) + newLimit * smoothing
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (600 + 1);
+    private static final double SHORT_WINDOW_ALPHA = 2.0 / (10 + 1);
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double TOLERANCE = 1.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.smoothing = Math.min(1.0, Math.max(0.01, smoothing));
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * 尝试获取并发许可
+     *
+     * @return 超过当前限制时返回 false
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放许可并反馈本次调用的结果
+     *
+     * @param rttNanos 本次调用耗时
+     * @param dropped  是否为下游过载信号（超时、连接失败、503 等）
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inflightAtCompletion = inflight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                limit = Math.max(minLimit, limit * DROP_BACKOFF);
+                return;
+            }
+            if (rttNanos <= 0) {
+                return;
+            }
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+                shortRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW_ALPHA;
+            longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_ALPHA;
+            // 短期 RTT 明显低于长期基线（负载下降）时加速基线回落
+            if (longRttNanos / shortRttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+            // 请求量远低于限制时不放大，避免限制无意义地膨胀
+            if (inflightAtCompletion < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+            limit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,96 @@
+package com.indigo.gateway.filter;
+
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 请求对冲路由过滤器（按路由显式开启）
+ * 仅对匹配 paths 的幂等 GET 请求生效：标记 exchange 后由 HedgingRoutingFilter 发送主请求，
+ * 超过路由 p95 延迟仍未响应时向另一个实例发送对冲请求，取先返回的结果
+ *
+ * 配置示例（paths 匹配 StripPrefix 之后的路径）：
+ * <pre>
+ * filters:
+ *   - name: Hedging
+ *     args:
+ *       paths: /auth/systemMenuTree,/user/info
+ *       budgetPercent: 5
+ * </pre>
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Component
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    /**
+     * 对冲策略（exchange attribute），存在时由 HedgingRoutingFilter 接管转发
+     */
+    public static final String EXCHANGE_ATTR_HEDGING_POLICY = "HedgingPolicy";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    public HedgingGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        HedgingPolicy policy = new HedgingPolicy(Duration.ofMillis(config.getMinDelayMs()),
+                Duration.ofMillis(config.getMaxDelayMs()), config.getPercentile(), config.getBudgetPercent(),
+                Duration.ofMillis(config.getResponseTimeoutMs()));
+        List<String> paths = List.copyOf(config.getPaths());
+
+        return (exchange, chain) -> {
+            if (HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+                String path = exchange.getRequest().getURI().getPath();
+                if (paths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+                    exchange.getAttributes().put(EXCHANGE_ATTR_HEDGING_POLICY, policy);
+                }
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    @Data
+    public static class Config {
+
+        /**
+         * 开启对冲的路径（Ant 风格，StripPrefix 之后的路径）
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 对冲延迟取值的分位
+         */
+        private double percentile = 0.95;
+
+        /**
+         * 对冲延迟下限（毫秒）
+         */
+        private long minDelayMs = 20;
+
+        /**
+         * 对冲延迟上限（毫秒），样本不足时使用该值
+         */
+        private long maxDelayMs = 1_000;
+
+        /**
+         * 对冲请求占总请求的最大百分比
+         */
+        private double budgetPercent = 5;
+
+        /**
+         * 等待上游响应的超时时间（毫秒），与 timelimiter 默认值一致
+         */
+        private long responseTimeoutMs = 10_000;
+    }
+}
@@ -0,0 +1,104 @@
+package com.indigo.gateway.filter;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 路由级对冲策略
+ * - 对冲延迟：最近请求耗时的指定分位值（默认 p95），限制在 [minDelay, maxDelay] 区间内
+ * - 对冲预算：每个请求按 budgetPercent 累积额度，每次对冲消耗 1，保证对冲请求不超过流量的 budgetPercent%
+ * - 延迟样本取主请求的响应耗时（被对冲请求胜出时取已等待时长），不只记录胜出请求
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public class HedgingPolicy {
+
+    private static final int WINDOW_SIZE = 512;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    /**
+     * 额度以千分之一为单位，最多累积 10 次对冲
+     */
+    private static final long TOKEN_SCALE = 1_000;
+    private static final long MAX_TOKENS = 10 * TOKEN_SCALE;
+
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double percentile;
+    private final long tokensPerRequest;
+    private final Duration responseTimeout;
+
+    private final long[] samples = new long[WINDOW_SIZE];
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long delayNanos;
+
+    public HedgingPolicy(Duration minDelay, Duration maxDelay, double percentile, double budgetPercent,
+                         Duration responseTimeout) {
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = Math.max(minDelayNanos, maxDelay.toNanos());
+        this.percentile = Math.min(0.999, Math.max(0.5, percentile));
+        this.tokensPerRequest = Math.round(Math.max(0, budgetPercent) / 100 * TOKEN_SCALE);
+        this.delayNanos = maxDelayNanos;
+        this.responseTimeout = responseTimeout;
+    }
+
+    /**
+     * 等待上游响应头的超时时间，超时返回 504
+     */
+    public Duration responseTimeout() {
+        return responseTimeout;
+    }
+
+    /**
+     * 当前对冲延迟
+     */
+    public Duration hedgeDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    /**
+     * 每个请求调用一次，累积对冲额度
+     */
+    public void onRequest() {
+        if (tokens.get() < MAX_TOKENS) {
+            tokens.accumulateAndGet(tokensPerRequest, (current, add) -> Math.min(MAX_TOKENS, current + add));
+        }
+    }
+
+    /**
+     * 尝试消耗一次对冲额度
+     */
+    public boolean tryAcquireHedge() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN_SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 记录请求耗时，每 RECOMPUTE_EVERY 个样本重新计算一次对冲延迟
+     */
+    public void recordLatency(long nanos) {
+        int count = sampleCount.getAndIncrement();
+        samples[count & (WINDOW_SIZE - 1)] = nanos;
+        if ((count + 1) % RECOMPUTE_EVERY == 0) {
+            recompute(Math.min(count + 1, WINDOW_SIZE));
+        }
+    }
+
+    private void recompute(int size) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        long value = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        delayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, value));
+    }
+}
@@ -0,0 +1,252 @@
+package com.indigo.gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
+
+/**
+ * 请求对冲转发过滤器
+ * 在负载均衡之后、NettyRoutingFilter 之前执行，仅处理被 HedgingGatewayFilterFactory 标记的请求：
+ * 1. 向负载均衡选中的实例发送主请求
+ * 2. 超过对冲延迟仍未响应且对冲预算充足时，向另一个实例发送对冲请求
+ * 3. 取先返回响应头的请求，取消另一个请求，并标记 exchange 已路由；
+ *    落败请求若也已返回响应头，立即释放其连接，不等待响应体
+ *
+ * 对冲请求固定以 GET 发送且不转发请求体，非 GET 请求即使被标记也按普通请求转发
+ *
+ * 请求使用路由的 HttpClient（PerRouteNettyRoutingFilter：按路由连接池、h2c、全局 httpclient 配置），
+ * 胜出请求的响应体与 NettyRoutingFilter 一样交给 NettyWriteResponseFilter 流式写回，不在内存中缓冲
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+@Component
+public class HedgingRoutingFilter implements GlobalFilter, Ordered {
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final PerRouteNettyRoutingFilter routingFilter;
+
+    public HedgingRoutingFilter(LoadBalancerClientFactory loadBalancerClientFactory,
+                                ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                PerRouteNettyRoutingFilter routingFilter) {
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.headersFilters = headersFilters;
+        this.routingFilter = routingFilter;
+    }
+
+    /**
+     * 上游响应（响应头已返回，响应体仍在连接上）
+     */
+    private record Upstream(HttpClientResponse response, Connection connection) {
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HedgingPolicy policy = exchange.getAttribute(HedgingGatewayFilterFactory.EXCHANGE_ATTR_HEDGING_POLICY);
+        URI primaryUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (policy == null || primaryUrl == null || route == null || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                || !"lb".equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+        if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            log.warn("对冲仅支持 GET 请求，按普通请求转发: method={}, path={}",
+                    exchange.getRequest().getMethod(), exchange.getRequest().getURI().getPath());
+            return chain.filter(exchange);
+        }
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        policy.onRequest();
+
+        HttpClient client = routingFilter.routeHttpClient(route, exchange).responseTimeout(policy.responseTimeout());
+        HttpHeaders requestHeaders = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+        long start = System.nanoTime();
+        AtomicReference<Upstream> winner = new AtomicReference<>();
+
+        // 对冲延迟按主请求的响应耗时计算：被对冲请求胜出而取消时记录已等待的时长（下界），避免只记录胜者使分位值偏低
+        Mono<Upstream> primary = send(client, primaryUrl, requestHeaders)
+                .doOnSuccess(upstream -> policy.recordLatency(System.nanoTime() - start))
+                .doOnCancel(() -> policy.recordLatency(System.nanoTime() - start))
+                .flatMap(upstream -> claim(winner, upstream));
+        Mono<Upstream> hedge = Mono.delay(policy.hedgeDelay())
+                .filter(tick -> policy.tryAcquireHedge())
+                .flatMap(tick -> hedge(exchange, client, route.getUri().getHost(), primaryUrl, requestHeaders))
+                .flatMap(upstream -> claim(winner, upstream));
+
+        return Mono.firstWithValue(primary, hedge)
+                .doOnDiscard(Upstream.class, HedgingRoutingFilter::release)
+                .timeout(policy.responseTimeout())
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e))
+                .onErrorMap(NoSuchElementException.class, HedgingRoutingFilter::primaryError)
+                .doOnNext(upstream -> applyResponse(exchange, upstream))
+                .then(chain.filter(exchange));
+    }
+
+    /**
+     * 只有第一个返回响应头的请求胜出；同时返回的落败请求不会再被 firstWithValue 取消，需在此释放连接
+     */
+    private static Mono<Upstream> claim(AtomicReference<Upstream> winner, Upstream upstream) {
+        if (winner.compareAndSet(null, upstream)) {
+            return Mono.just(upstream);
+        }
+        release(upstream);
+        return Mono.empty();
+    }
+
+    /**
+     * 释放落败请求的连接（响应体未读取，连接不能复用，直接关闭）
+     */
+    private static void release(Upstream upstream) {
+        log.debug("释放落败的对冲请求连接: status={}", upstream.response().status().code());
+        upstream.connection().dispose();
+    }
+
+    private Mono<Upstream> send(HttpClient client, URI url, HttpHeaders requestHeaders) {
+        return client.headers(headers -> requestHeaders.forEach((name, values) -> {
+                    if (!HttpHeaders.HOST.equalsIgnoreCase(name)) {
+                        headers.set(name, values);
+                    }
+                }))
+                .get()
+                .uri(url)
+                .responseConnection((response, connection) -> Mono.just(new Upstream(response, connection)))
+                .next();
+    }
+
+    /**
+     * 向与主请求不同的实例发送对冲请求，无法选出时不发送
+     * 选择和完成都通过 LoadBalancerLifecycle 回调（与 ReactiveLoadBalancerClientFilter 一致），
+     * 使 LEAST_LATENCY 的处理中请求数和延迟统计包含对冲请求；对冲请求被取消时以 DISCARD 结束
+     */
+    private Mono<Upstream> hedge(ServerWebExchange exchange, HttpClient client, String serviceId, URI primaryUrl,
+                                 HttpHeaders requestHeaders) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerClientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+        Set<LoadBalancerLifecycle> lifecycles = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                loadBalancerClientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+        RequestData requestData = new RequestData(exchange.getRequest());
+        DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(new RequestDataContext(requestData));
+        lifecycles.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+
+        return Mono.from(loadBalancer.choose(lbRequest))
+                .repeat(2)
+                .filter(Response::hasServer)
+                .filter(lbResponse -> !isSameInstance(lbResponse.getServer(), primaryUrl))
+                .next()
+                .flatMap(lbResponse -> {
+                    URI hedgeUrl = LoadBalancerUriTools.reconstructURI(lbResponse.getServer(), primaryUrl);
+                    log.debug("发送对冲请求: path={}, primary={}, hedge={}",
+                            exchange.getRequest().getURI().getPath(), primaryUrl.getAuthority(), hedgeUrl.getAuthority());
+                    lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+                    return send(client, hedgeUrl, requestHeaders)
+                            .doOnSuccess(upstream -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                                    new CompletionContext<>(CompletionContext.Status.SUCCESS, lbRequest, lbResponse,
+                                            new ResponseData(HttpStatusCode.valueOf(upstream.response().status().code()),
+                                                    toHttpHeaders(upstream.response()), new LinkedMultiValueMap<>(),
+                                                    requestData)))))
+                            .doOnError(e -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                                    new CompletionContext<>(CompletionContext.Status.FAILED, e, lbRequest, lbResponse))))
+                            .doOnCancel(() -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                                    new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, lbResponse))));
+                });
+    }
+
+    private static boolean isSameInstance(ServiceInstance instance, URI url) {
+        return Objects.equals(instance.getHost(), url.getHost()) && instance.getPort() == url.getPort();
+    }
+
+    /**
+     * 写入胜出请求的状态码和响应头（与 NettyRoutingFilter 一致），响应体由 NettyWriteResponseFilter 从连接中流式写出
+     */
+    private void applyResponse(ServerWebExchange exchange, Upstream upstream) {
+        HttpClientResponse clientResponse = upstream.response();
+        ServerHttpResponse response = exchange.getResponse();
+
+        HttpHeaders headers = toHttpHeaders(clientResponse);
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (StringUtils.hasLength(contentType)) {
+            exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+        }
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of), headers, exchange,
+                HttpHeadersFilter.Type.RESPONSE);
+        if (!filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, filtered.keySet());
+        response.getHeaders().addAll(filtered);
+        response.setStatusCode(HttpStatusCode.valueOf(clientResponse.status().code()));
+
+        exchange.getAttributes().put(CLIENT_RESPONSE_ATTR, clientResponse);
+        exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, upstream.connection());
+    }
+
+    private static HttpHeaders toHttpHeaders(HttpClientResponse clientResponse) {
+        HttpHeaders headers = new HttpHeaders();
+        clientResponse.responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+        return headers;
+    }
+
+    /**
+     * 主请求与对冲请求都失败时，返回主请求的异常
+     */
+    private static Throwable primaryError(NoSuchElementException e) {
+        Throwable[] suppressed = e.getSuppressed();
+        return suppressed.length > 0 ? suppressed[0] : e;
+    }
+
+    @Override
+    public int getOrder() {
+        // 负载均衡选出实例之后、NettyRoutingFilter 之前
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
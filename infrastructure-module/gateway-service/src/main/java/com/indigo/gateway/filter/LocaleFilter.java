@@ -1,8 +1,10 @@
 package com.indigo.gateway.filter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.indigo.gateway.config.GatewayConfig;
+import com.indigo.gateway.service.SupportedLanguageService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -11,12 +13,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * 语言环境过滤器
  * 处理客户端请求的语言环境信息，并传递给下游服务
  * 支持动态语言环境，无需硬编码支持列表
+ * Accept-Language 按 q 值与 mdm-service 启用的语言列表协商
+ * 解析结果按原始请求头值缓存，默认语言环境仅在配置变化时重新解析
  * 
  * @author 史偕成
  * @date 2025/01/27
@@ -25,8 +32,39 @@ import java.util.Locale;
 @Component
 public class LocaleFilter implements GlobalFilter, Ordered {
     
-    @Autowired
-    private GatewayConfig gatewayConfig;
+    /**
+     * 解析出的语言环境（exchange attribute），供回退、错误响应等网关自身生成的响应使用
+     */
+    public static final String EXCHANGE_ATTR_LOCALE = "Locale";
+    
+    /**
+     * 超过该长度的原始值不进入缓存，避免异常请求头撑大缓存
+     */
+    private static final int MAX_CACHEABLE_LENGTH = 128;
+    
+    private final GatewayConfig gatewayConfig;
+    private final SupportedLanguageService supportedLanguageService;
+    
+    /**
+     * URL参数 / 自定义请求头 -> 语言环境
+     */
+    private final Cache<String, Optional<Locale>> localeCache;
+    
+    /**
+     * Accept-Language -> 协商后的语言环境，支持语言列表变化时整体失效
+     */
+    private final Cache<String, Optional<Locale>> acceptLanguageCache;
+    
+    private volatile List<Locale> negotiatedAgainst;
+    private volatile DefaultLocale defaultLocale;
+    
+    public LocaleFilter(GatewayConfig gatewayConfig, SupportedLanguageService supportedLanguageService) {
+        this.gatewayConfig = gatewayConfig;
+        this.supportedLanguageService = supportedLanguageService;
+        long maximumSize = gatewayConfig.getLocale().getCacheMaximumSize();
+        this.localeCache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.acceptLanguageCache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
     
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -49,11 +87,8 @@ public class LocaleFilter implements GlobalFilter, Ordered {
                 }
             }
             
-            // 添加语言环境到请求头，传递给下游服务
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-Locale", locale.toString())
-                    .header("X-Language", locale.getLanguage())
-                    .build();
+            // 添加语言环境到请求头，传递给下游服务（由 RequestHeaderMutationFilter 统一应用）
+            setLocaleHeaders(exchange, locale);
             
             // 记录语言环境信息
             if (gatewayConfig.getLocale().isLogLocale()) {
@@ -61,29 +96,23 @@ public class LocaleFilter implements GlobalFilter, Ordered {
                          locale, request.getMethod(), request.getURI().getPath());
             }
             
-            // 替换请求
-            ServerWebExchange modifiedExchange = exchange.mutate()
-                    .request(modifiedRequest)
-                    .build();
-            
-            return chain.filter(modifiedExchange);
+            return chain.filter(exchange);
             
         } catch (Exception e) {
             log.warn("Error processing locale in Gateway filter", e);
             // 即使出错也继续处理，使用默认语言环境
-            ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
-                    .header("X-Locale", getDefaultLocale().toString())
-                    .header("X-Language", getDefaultLocale().getLanguage())
-                    .build();
-            
-            ServerWebExchange modifiedExchange = exchange.mutate()
-                    .request(modifiedRequest)
-                    .build();
-            
-            return chain.filter(modifiedExchange);
+            setLocaleHeaders(exchange, getDefaultLocale());
+            return chain.filter(exchange);
         }
     }
     
+    private void setLocaleHeaders(ServerWebExchange exchange, Locale locale) {
+        exchange.getAttributes().put(EXCHANGE_ATTR_LOCALE, locale);
+        RequestHeaderMutations.of(exchange)
+                .set("X-Locale", locale.toString())
+                .set("X-Language", locale.getLanguage());
+    }
+    
     /**
      * 从请求中提取语言环境
      * 优先级：URL参数 > 自定义请求头 > Accept-Language头 > 默认语言环境
@@ -97,7 +126,7 @@ public class LocaleFilter implements GlobalFilter, Ordered {
         // 1. 从URL参数获取（最高优先级）
         String localeParam = request.getQueryParams().getFirst(localeConfig.getParamName());
         if (localeParam != null && !localeParam.isEmpty()) {
-            Locale locale = parseLocale(localeParam);
+            Locale locale = cachedParseLocale(localeParam);
             if (locale != null) {
                 return locale;
             }
@@ -106,7 +135,7 @@ public class LocaleFilter implements GlobalFilter, Ordered {
         // 2. 从自定义请求头获取
         String localeHeader = request.getHeaders().getFirst(localeConfig.getHeaderName());
         if (localeHeader != null && !localeHeader.isEmpty()) {
-            Locale locale = parseLocale(localeHeader);
+            Locale locale = cachedParseLocale(localeHeader);
             if (locale != null) {
                 return locale;
             }
@@ -115,7 +144,7 @@ public class LocaleFilter implements GlobalFilter, Ordered {
         // 3. 从Accept-Language头获取
         String acceptLanguage = request.getHeaders().getFirst("Accept-Language");
         if (acceptLanguage != null && !acceptLanguage.isEmpty()) {
-            Locale locale = parseAcceptLanguage(acceptLanguage);
+            Locale locale = cachedNegotiate(acceptLanguage);
             if (locale != null) {
                 return locale;
             }
@@ -127,13 +156,46 @@ public class LocaleFilter implements GlobalFilter, Ordered {
     
     /**
      * 获取默认语言环境
+     * 仅在配置值变化（如 Nacos 刷新）时重新解析
      * 
      * @return 默认语言环境
      */
     private Locale getDefaultLocale() {
         String defaultLocaleStr = gatewayConfig.getLocale().getDefaultLocale();
-        Locale defaultLocale = parseLocale(defaultLocaleStr);
-        return defaultLocale != null ? defaultLocale : Locale.SIMPLIFIED_CHINESE;
+        DefaultLocale current = defaultLocale;
+        if (current == null || !Objects.equals(current.source(), defaultLocaleStr)) {
+            Locale parsed = parseLocale(defaultLocaleStr);
+            current = new DefaultLocale(defaultLocaleStr, parsed != null ? parsed : Locale.SIMPLIFIED_CHINESE);
+            defaultLocale = current;
+        }
+        return current.locale();
+    }
+    
+    /**
+     * 带缓存的语言环境解析
+     */
+    private Locale cachedParseLocale(String localeStr) {
+        if (localeStr.length() > MAX_CACHEABLE_LENGTH) {
+            return parseLocale(localeStr);
+        }
+        return localeCache.get(localeStr, key -> Optional.ofNullable(parseLocale(key))).orElse(null);
+    }
+    
+    /**
+     * 带缓存的 Accept-Language 协商
+     * 支持语言列表更新后清空缓存，避免沿用旧的协商结果
+     */
+    private Locale cachedNegotiate(String acceptLanguage) {
+        List<Locale> supported = supportedLanguageService.getSupportedLocales();
+        if (supported != negotiatedAgainst) {
+            acceptLanguageCache.invalidateAll();
+            negotiatedAgainst = supported;
+        }
+        if (acceptLanguage.length() > MAX_CACHEABLE_LENGTH) {
+            return parseAcceptLanguage(acceptLanguage, supported);
+        }
+        return acceptLanguageCache.get(acceptLanguage,
+                key -> Optional.ofNullable(parseAcceptLanguage(key, supported))).orElse(null);
     }
     
     /**
@@ -175,27 +237,42 @@ public class LocaleFilter implements GlobalFilter, Ordered {
     /**
      * 解析Accept-Language头
      * 示例：zh-CN,zh;q=0.9,en;q=0.8
+     * 按 q 值从高到低与支持语言列表协商：先精确/回退匹配（lookup），再按范围过滤（filter）；
+     * 支持语言列表为空时取权重最高的非通配语言
      * 
      * @param acceptLanguage Accept-Language头值
+     * @param supported 支持的语言列表
      * @return 语言环境对象
      */
-    private Locale parseAcceptLanguage(String acceptLanguage) {
+    private Locale parseAcceptLanguage(String acceptLanguage, List<Locale> supported) {
         if (acceptLanguage == null || acceptLanguage.isEmpty()) {
             return null;
         }
         
         try {
-            // 分割语言偏好，取第一个
-            String[] languages = acceptLanguage.split(",");
-            if (languages.length > 0) {
-                // 移除质量值（q=0.9）
-                String primaryLanguage = languages[0].split(";")[0].trim();
-                return parseLocale(primaryLanguage);
+            // 解析结果已按权重降序排列，q=0 的语言会被剔除
+            List<Locale.LanguageRange> ranges = Locale.LanguageRange.parse(acceptLanguage);
+            if (ranges.isEmpty()) {
+                return null;
             }
             
-            return null;
+            if (supported.isEmpty()) {
+                return ranges.stream()
+                        .map(Locale.LanguageRange::getRange)
+                        .filter(range -> !range.startsWith("*"))
+                        .findFirst()
+                        .map(this::parseLocale)
+                        .orElse(null);
+            }
             
-        } catch (Exception e) {
+            Locale matched = Locale.lookup(ranges, supported);
+            if (matched != null) {
+                return matched;
+            }
+            List<Locale> filtered = Locale.filter(ranges, supported);
+            return filtered.isEmpty() ? null : filtered.get(0);
+            
+        } catch (IllegalArgumentException e) {
             log.debug("Failed to parse Accept-Language: {}", acceptLanguage, e);
             return null;
         }
@@ -236,6 +313,12 @@ public class LocaleFilter implements GlobalFilter, Ordered {
         return true;
     }
     
+    /**
+     * 默认语言环境及其对应的配置值
+     */
+    private record DefaultLocale(String source, Locale locale) {
+    }
+    
     @Override
     public int getOrder() {
         // 设置优先级，在日志过滤器之前执行
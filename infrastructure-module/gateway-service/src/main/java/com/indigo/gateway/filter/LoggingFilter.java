@@ -1,19 +1,26 @@
 package com.indigo.gateway.filter;
 
+import com.indigo.gateway.service.AccessLogService;
+import com.indigo.gateway.service.GatewayMetrics;
+import com.indigo.gateway.service.RequestIdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.Instant;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Global filter for logging requests and responses
+ * Access log entries are sampled and written asynchronously by {@link AccessLogService},
+ * latency and in-flight requests are recorded per route by {@link GatewayMetrics}
  * 
  * @author 史偕成
  * @date 2025/04/24 21:57
@@ -24,65 +31,94 @@ public class LoggingFilter implements GlobalFilter, Ordered {
 
     private static final String REQUEST_ID_KEY = "RequestId";
     private static final String START_TIME_KEY = "StartTime";
+
+    private final RequestIdGenerator requestIdGenerator;
+    private final AccessLogService accessLogService;
+    private final GatewayMetrics gatewayMetrics;
+
+    public LoggingFilter(RequestIdGenerator requestIdGenerator, AccessLogService accessLogService,
+                         GatewayMetrics gatewayMetrics) {
+        this.requestIdGenerator = requestIdGenerator;
+        this.accessLogService = accessLogService;
+        this.gatewayMetrics = gatewayMetrics;
+    }
     
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        // Generate a unique ID for the request
-        String requestId = UUID.randomUUID().toString();
+        // Generate a unique ID for the request (cheap, monotonic per gateway instance)
+        String requestId = requestIdGenerator.nextId();
         
-        // Record start time
-        Instant startTime = Instant.now();
+        // Record start time (monotonic clock)
+        long startNanos = System.nanoTime();
         
         // Add request ID to the exchange attributes for tracking
         exchange.getAttributes().put(REQUEST_ID_KEY, requestId);
-        exchange.getAttributes().put(START_TIME_KEY, startTime);
-        
-        // Get request details
-        ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-        String query = request.getURI().getRawQuery();
-        String method = request.getMethod().name();
+        exchange.getAttributes().put(START_TIME_KEY, startNanos);
         
-        // Add request ID to the request headers
-        ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-Request-ID", requestId)
-                .build();
+        // Add request ID to the forwarded request headers (applied once by RequestHeaderMutationFilter)
+        RequestHeaderMutations.of(exchange).set("X-Request-ID", requestId);
         
-        // Replace the request with the modified one
-        ServerWebExchange modifiedExchange = exchange.mutate().request(modifiedRequest).build();
+        if (log.isDebugEnabled()) {
+            ServerHttpRequest request = exchange.getRequest();
+            log.debug("Request: {} {} - RequestId: {}", request.getMethod(), request.getURI().getPath(), requestId);
+        }
         
-        // Log the request
-        log.info("Request: {} {} [{}] - RequestId: {}", method, path + (query != null ? "?" + query : ""), 
-                request.getRemoteAddress(), requestId);
+        // Track in-flight requests for the matched route
+        String routeId = GatewayMetrics.routeId(exchange);
+        gatewayMetrics.requestStarted(routeId);
         
-        // Process the request and log the response details when complete
-        return chain.filter(modifiedExchange)
-                .doOnSuccess(v -> logResponse(modifiedExchange, startTime, requestId, null))
-                .doOnError(ex -> logResponse(modifiedExchange, startTime, requestId, ex));
+        // Process the request and record the access log entry and metrics when complete (exactly once)
+        AtomicBoolean completed = new AtomicBoolean();
+        Runnable onComplete = () -> complete(exchange, completed, routeId, startNanos, requestId, null);
+        return chain.filter(exchange)
+                .doOnSuccess(v -> onComplete.run())
+                .doOnError(ex -> {
+                    // The error handler (GlobalErrorHandler) sets the status after this filter chain fails,
+                    // so record the entry when it commits the error response
+                    ServerHttpResponse response = exchange.getResponse();
+                    if (response.isCommitted()) {
+                        complete(exchange, completed, routeId, startNanos, requestId, ex);
+                    } else {
+                        response.beforeCommit(() -> Mono.fromRunnable(
+                                () -> complete(exchange, completed, routeId, startNanos, requestId, ex)));
+                    }
+                })
+                .doOnCancel(onComplete);
     }
     
     /**
-     * Log response details
+     * Record response details and route metrics (formatting happens on the access log writer thread)
      */
-    private void logResponse(ServerWebExchange exchange, Instant startTime, String requestId, Throwable ex) {
+    private void complete(ServerWebExchange exchange, AtomicBoolean completed, String routeId,
+                          long startNanos, String requestId, Throwable ex) {
+        if (!completed.compareAndSet(false, true)) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        int status = statusCode(exchange);
+        gatewayMetrics.requestCompleted(routeId, status, elapsedNanos);
+
         // Calculate execution time
-        long executionTime = Instant.now().toEpochMilli() - startTime.toEpochMilli();
-        
-        // Get status code (if available)
-        int statusCode = exchange.getResponse().getStatusCode() != null ?
-                exchange.getResponse().getStatusCode().value() : 500;
+        long executionTime = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
         
         ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-        String method = request.getMethod().name();
-        
-        if (ex == null) {
-            log.info("Response: {} {} [{}] - Status: {} - Time: {}ms - RequestId: {}", 
-                    method, path, request.getRemoteAddress(), statusCode, executionTime, requestId);
-        } else {
-            log.error("Response: {} {} [{}] - Status: {} - Time: {}ms - Error: {} - RequestId: {}", 
-                    method, path, request.getRemoteAddress(), statusCode, executionTime, ex.getMessage(), requestId, ex);
-        }
+        accessLogService.record(new AccessLogService.AccessLogEntry(
+                requestId,
+                request.getMethod().name(),
+                request.getURI().getRawPath(),
+                request.getURI().getRawQuery(),
+                request.getRemoteAddress(),
+                status,
+                executionTime,
+                ex));
+    }
+
+    /**
+     * Get status code (if available)
+     */
+    private int statusCode(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : 500;
     }
 
     @Override
@@ -90,4 +126,4 @@ public class LoggingFilter implements GlobalFilter, Ordered {
         // Set order to be the second-highest priority (after error handling)
         return Ordered.HIGHEST_PRECEDENCE + 1;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.config.GatewayConfig;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientConfig;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按路由使用独立连接池的 NettyRoutingFilter
+ * synapse.gateway.http-client.routes 中配置的路由使用独立的 ConnectionProvider（连接数、等待队列、空闲淘汰、h2c），
+ * 避免某个下游发布或变慢时占满全局连接池；未配置的路由沿用全局 HttpClient
+ * 路由 HttpClient 由全局 HttpClient 派生（spring.cloud.gateway.httpclient 配置及 HttpClientCustomizer 的定制），只替换连接池；
+ * 配置刷新后按值比较，仅变更的路由重建连接池，旧连接池在 disposeTimeoutMs 内等待处理中的请求完成后关闭
+ *
+ * 替代默认的 NettyRoutingFilter（spring.cloud.gateway.global-filter.netty-routing.enabled=false）
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+public class PerRouteNettyRoutingFilter extends NettyRoutingFilter implements DisposableBean {
+
+    private final HttpClient globalClient;
+    private final GatewayConfig gatewayConfig;
+    private final Map<String, RouteClient> routeClients = new ConcurrentHashMap<>();
+
+    public PerRouteNettyRoutingFilter(HttpClient httpClient,
+                                      ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                      HttpClientProperties properties,
+                                      GatewayConfig gatewayConfig) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.globalClient = httpClient;
+        this.gatewayConfig = gatewayConfig;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        GatewayConfig.RouteHttpClientConfig config = gatewayConfig.getHttpClient().getRoutes().get(route.getId());
+        if (config == null) {
+            return super.getHttpClient(route, exchange);
+        }
+        RouteClient routeClient = routeClients.get(route.getId());
+        if (routeClient == null || !routeClient.config().equals(config)) {
+            // 首次使用或配置变更后重建，旧连接池优雅关闭（disposeTimeout 内等待已借出的连接归还）
+            routeClient = routeClients.compute(route.getId(), (routeId, existing) -> {
+                if (existing != null && existing.config().equals(config)) {
+                    return existing;
+                }
+                if (existing != null) {
+                    log.info("路由连接池配置已变更，重建连接池: route={}", routeId);
+                    existing.provider().disposeLater().subscribe();
+                }
+                return createClient(routeId, config);
+            });
+        }
+        return routeClient.client();
+    }
+
+    /**
+     * 路由使用的 HttpClient（按路由连接池或全局 HttpClient），供 HedgingRoutingFilter 复用
+     */
+    public HttpClient routeHttpClient(Route route, ServerWebExchange exchange) {
+        return getHttpClient(route, exchange);
+    }
+
+    private RouteClient createClient(String routeId, GatewayConfig.RouteHttpClientConfig config) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("gateway-" + routeId)
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireMaxCount(config.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(config.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(config.getMaxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(config.getMaxLifeTimeMs()))
+                .disposeTimeout(Duration.ofMillis(config.getDisposeTimeoutMs()))
+                .metrics(config.isMetrics());
+        if (config.getEvictionIntervalMs() > 0) {
+            builder.evictInBackground(Duration.ofMillis(config.getEvictionIntervalMs()));
+        }
+        ConnectionProvider provider = builder.build();
+
+        HttpClient client = deriveClient(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeoutMs());
+        if (config.isH2c()) {
+            client = client.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        // 保存配置快照：刷新可能原地修改配置对象，按快照比较才能识别变更
+        GatewayConfig.RouteHttpClientConfig snapshot = new GatewayConfig.RouteHttpClientConfig();
+        BeanUtils.copyProperties(config, snapshot);
+        log.info("路由使用独立连接池: route={}, maxConnections={}, pendingAcquireMaxCount={}, h2c={}",
+                routeId, config.getMaxConnections(), config.getPendingAcquireMaxCount(), config.isH2c());
+        return new RouteClient(snapshot, provider, client);
+    }
+
+    /**
+     * 以全局 HttpClient 的配置为基础创建使用指定连接池的 HttpClient
+     * reactor-netty 不支持替换已有 HttpClient 的连接池，因此复制全局 HttpClient 的 Channel 选项、超时、解码、压缩、协议、
+     * TLS、默认请求头、DNS 解析、Channel 初始化及指标配置
+     */
+    @SuppressWarnings("unchecked")
+    private HttpClient deriveClient(ConnectionProvider provider) {
+        HttpClientConfig base = globalClient.configuration();
+        HttpClient client = HttpClient.create(provider)
+                .httpResponseDecoder(spec -> base.decoder())
+                .compress(base.isAcceptGzip())
+                .protocol(base.protocols())
+                .headers(headers -> headers.add(base.headers()));
+        for (Map.Entry<ChannelOption<?>, ?> option : base.options().entrySet()) {
+            client = client.option((ChannelOption<Object>) option.getKey(), option.getValue());
+        }
+        if (base.responseTimeout() != null) {
+            client = client.responseTimeout(base.responseTimeout());
+        }
+        if (base.sslProvider() != null) {
+            client = client.secure(base.sslProvider());
+        }
+        if (base.resolver() != null) {
+            client = client.resolver(base.resolver());
+        }
+        if (base.doOnChannelInit() != null) {
+            client = client.doOnChannelInit(base.doOnChannelInit());
+        }
+        if (base.metricsRecorder() != null) {
+            client = client.metrics(true, base.metricsRecorder());
+        }
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        routeClients.values().forEach(routeClient -> routeClient.provider().dispose());
+        routeClients.clear();
+    }
+
+    private record RouteClient(GatewayConfig.RouteHttpClientConfig config, ConnectionProvider provider,
+                               HttpClient client) {
+    }
+}
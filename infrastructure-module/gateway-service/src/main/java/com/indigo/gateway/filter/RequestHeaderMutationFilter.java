@@ -0,0 +1,36 @@
+package com.indigo.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 请求头变更应用过滤器
+ * 在负载均衡与路由之前，将 LocaleFilter、LoggingFilter、ApiKeyAuthFilter、TokenAuthFilter
+ * 记录在 RequestHeaderMutations 中的请求头变更一次性应用到转发请求
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Component
+public class RequestHeaderMutationFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Object attribute = exchange.getAttributes().remove(RequestHeaderMutations.EXCHANGE_ATTR_HEADER_MUTATIONS);
+        if (!(attribute instanceof RequestHeaderMutations mutations) || mutations.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().request(mutations.applyTo(exchange.getRequest())).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // 在负载均衡过滤器之前执行，此时所有认证 / 上下文过滤器均已完成
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.indigo.gateway.filter;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 请求头变更累加器（每个 exchange 一份）
+ * 各全局过滤器只记录需要设置 / 移除的转发请求头，由 RequestHeaderMutationFilter 在路由前统一构建一次请求，
+ * 避免每个过滤器各自 request.mutate() / exchange.mutate() 造成的多次请求头拷贝和装饰对象分配
+ *
+ * 注意：记录的变更在路由前才生效，之后的过滤器通过 exchange.getRequest() 读取的仍是原始请求头
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+public final class RequestHeaderMutations {
+
+    /**
+     * exchange attribute 键
+     */
+    public static final String EXCHANGE_ATTR_HEADER_MUTATIONS = "RequestHeaderMutations";
+
+    private final Map<String, String> headersToSet = new LinkedHashMap<>(8);
+    private Set<String> headersToRemove;
+
+    private RequestHeaderMutations() {
+    }
+
+    /**
+     * 获取当前 exchange 的累加器，不存在时创建
+     */
+    public static RequestHeaderMutations of(ServerWebExchange exchange) {
+        return (RequestHeaderMutations) exchange.getAttributes()
+                .computeIfAbsent(EXCHANGE_ATTR_HEADER_MUTATIONS, key -> new RequestHeaderMutations());
+    }
+
+    /**
+     * 设置请求头（覆盖原值），同名请求头的移除记录随之取消
+     */
+    public RequestHeaderMutations set(String name, String value) {
+        if (headersToRemove != null) {
+            headersToRemove.remove(name);
+        }
+        headersToSet.put(name, value);
+        return this;
+    }
+
+    /**
+     * 移除请求头，同名请求头的设置记录随之取消
+     */
+    public RequestHeaderMutations remove(String name) {
+        headersToSet.remove(name);
+        if (headersToRemove == null) {
+            headersToRemove = new LinkedHashSet<>(4);
+        }
+        headersToRemove.add(name);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return headersToSet.isEmpty() && (headersToRemove == null || headersToRemove.isEmpty());
+    }
+
+    /**
+     * 将记录的变更一次性应用到请求上
+     */
+    ServerHttpRequest applyTo(ServerHttpRequest request) {
+        return request.mutate()
+                .headers(headers -> {
+                    if (headersToRemove != null) {
+                        headersToRemove.forEach(headers::remove);
+                    }
+                    headersToSet.forEach((name, value) -> headers.put(name, List.of(value)));
+                })
+                .build();
+    }
+}
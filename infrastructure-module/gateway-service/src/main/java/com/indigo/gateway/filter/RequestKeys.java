@@ -0,0 +1,78 @@
+package com.indigo.gateway.filter;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+/**
+ * 请求标识工具（响应缓存、请求合并共用）
+ * 请求键：路由 + 方法 + 路径 + 查询串 + 请求体摘要 + 语言 + 隔离标识
+ * 隔离标识默认为权限指纹（权限相同的调用方共享），响应与调用方身份相关时按调用方（用户 ID / 客户端 ID）隔离
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+final class RequestKeys {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private RequestKeys() {
+    }
+
+    /**
+     * 读取请求体后计算请求键（GET 不读取请求体），请求体被缓存，下游仍可读取
+     */
+    static Mono<Void> withRequestKey(String routeId, boolean perPrincipal, ServerWebExchange exchange,
+                                     BiFunction<ServerWebExchange, String, Mono<Void>> handler) {
+        if (HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return handler.apply(exchange, requestKey(routeId, perPrincipal, exchange, EMPTY_BODY));
+        }
+        return ServerWebExchangeUtils.cacheRequestBody(exchange, cachedRequest -> {
+            ServerWebExchange cachedExchange = exchange.mutate().request(cachedRequest).build();
+            DataBuffer body = cachedExchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+            byte[] bodyBytes = EMPTY_BODY;
+            if (body != null) {
+                bodyBytes = new byte[body.readableByteCount()];
+                body.toByteBuffer(body.readPosition(), ByteBuffer.wrap(bodyBytes), 0, bodyBytes.length);
+            }
+            return handler.apply(cachedExchange, requestKey(routeId, perPrincipal, exchange, bodyBytes));
+        });
+    }
+
+    static String requestKey(String routeId, boolean perPrincipal, ServerWebExchange exchange, byte[] body) {
+        ServerHttpRequest request = exchange.getRequest();
+        Locale locale = exchange.getAttribute(LocaleFilter.EXCHANGE_ATTR_LOCALE);
+        String fingerprint = exchange.getAttribute(perPrincipal
+                ? ResponseCacheGatewayFilterFactory.EXCHANGE_ATTR_PRINCIPAL
+                : ResponseCacheGatewayFilterFactory.EXCHANGE_ATTR_PERMISSION_FINGERPRINT);
+        String query = request.getURI().getRawQuery();
+        return routeId + '|' + request.getMethod().name() + '|' + request.getURI().getRawPath()
+                + '|' + (query != null ? query : "")
+                + '|' + (body.length > 0 ? HexFormat.of().formatHex(sha256(body)) : "")
+                + '|' + (locale != null ? locale.toLanguageTag() : "")
+                + '|' + (fingerprint != null ? digest(fingerprint) : "");
+    }
+
+    static String digest(String value) {
+        return HexFormat.of().formatHex(sha256(value.getBytes(StandardCharsets.UTF_8)), 0, 16);
+    }
+
+    static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
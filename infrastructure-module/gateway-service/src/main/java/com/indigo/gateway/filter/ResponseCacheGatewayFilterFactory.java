@@ -0,0 +1,169 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.service.ResponseCacheService;
+import com.indigo.gateway.service.ResponseCacheService.CachedResponse;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 只读接口响应缓存路由过滤器
+ * 缓存键见 RequestKeys（路由 + 方法 + 路径 + 查询串 + 请求体摘要 + 语言 + 权限指纹），
+ * 命中时直接由网关返回（支持 ETag / If-None-Match 返回 304），未命中时转发，
+ * 仅缓存 HTTP 200 且 Result 为成功的响应，响应头只缓存白名单（见 ResponseSnapshots）
+ *
+ * 配置示例（paths 匹配 StripPrefix 之后的路径，需放在 StripPrefix 之后、CircuitBreaker 之前）：
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       paths: /geographic/country/list
+ *       ttlSeconds: 300
+ *       tags: mdm:country
+ * </pre>
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /**
+     * 权限指纹原文（exchange attribute），由认证过滤器写入权限列表或调用方标识，缓存键按其摘要隔离
+     */
+    public static final String EXCHANGE_ATTR_PERMISSION_FINGERPRINT = "PermissionFingerprint";
+
+    /**
+     * 调用方标识（exchange attribute），由认证过滤器写入 user:用户 ID 或 client:客户端 ID
+     */
+    public static final String EXCHANGE_ATTR_PRINCIPAL = "RequestPrincipal";
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final ResponseCacheService responseCacheService;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheService responseCacheService) {
+        super(Config.class);
+        this.responseCacheService = responseCacheService;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<String> paths = List.copyOf(config.getPaths());
+        Set<String> tags = Set.copyOf(config.getTags());
+        long ttlNanos = TimeUnit.SECONDS.toNanos(config.getTtlSeconds());
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+            String path = request.getURI().getPath();
+            if (!(HttpMethod.GET.equals(method) || HttpMethod.POST.equals(method))
+                    || paths.stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+                return chain.filter(exchange);
+            }
+            // POST 查询接口会缓存请求体后计算摘要，下游仍可读取请求体
+            return RequestKeys.withRequestKey(config.getRouteId(), false, exchange,
+                    (keyedExchange, key) -> handle(keyedExchange, chain, key, tags, ttlNanos));
+        };
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                              Set<String> tags, long ttlNanos) {
+        CachedResponse cached = responseCacheService.get(key);
+        if (cached != null) {
+            return writeCached(exchange, cached);
+        }
+        ServerHttpResponse original = exchange.getResponse();
+        ServerHttpResponseDecorator decorator = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (!HttpStatus.OK.equals(getStatusCode())) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    if (!ResponseSnapshots.isSuccessResult(bytes)) {
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    }
+                    String etag = etag(bytes);
+                    responseCacheService.put(key, new CachedResponse(HttpStatus.OK,
+                            ResponseSnapshots.replayableHeaders(getHeaders()), bytes, etag, tags, ttlNanos));
+
+                    getHeaders().setETag(etag);
+                    getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorator).build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        if (ResponseSnapshots.notModified(exchange.getRequest(), cached.etag())) {
+            response.getHeaders().setETag(cached.etag());
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        // 以网关计算的 ETag 为准（快照中可能带有下游的 ETag）
+        response.getHeaders().setETag(cached.etag());
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static String etag(byte[] body) {
+        return "\"" + HexFormat.of().formatHex(RequestKeys.sha256(body), 0, 16) + "\"";
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * 缓存的路径（Ant 风格，StripPrefix 之后的路径）
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 缓存存活时间（秒）
+         */
+        private long ttlSeconds = 60;
+
+        /**
+         * 失效标签，收到同名失效事件时清除该路由的缓存
+         */
+        private List<String> tags = new ArrayList<>();
+    }
+}
@@ -0,0 +1,78 @@
+package com.indigo.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 响应快照工具（响应缓存、请求合并共用）
+ * 只保存和复用白名单内的响应头：CORS、Vary、Set-Cookie 等与单个请求相关的响应头由当前请求自身的处理链写入，不从其他请求复用；
+ * ETag 随响应复用，被合并的请求仍可按 If-None-Match 返回 304
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+final class ResponseSnapshots {
+
+    /**
+     * 可复用的响应头
+     */
+    private static final List<String> REPLAYABLE_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.ETAG);
+
+    /**
+     * Result 成功状态码
+     */
+    private static final String RESULT_SUCCESS_CODE = "200";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private ResponseSnapshots() {
+    }
+
+    /**
+     * 提取可复用的响应头（只读）
+     */
+    static HttpHeaders replayableHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : REPLAYABLE_HEADERS) {
+            List<String> values = source.get(name);
+            if (values != null) {
+                headers.put(name, List.copyOf(values));
+            }
+        }
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    /**
+     * If-None-Match 按实体标签逐个弱比较（RFC 9110），支持 *
+     *
+     * @param request 当前请求
+     * @param etag    响应的 ETag（带引号），为空时不匹配
+     */
+    static boolean notModified(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ifNoneMatch.stream()
+                .flatMap(value -> ETag.parse(value).stream())
+                .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    /**
+     * 响应体是否为成功的 Result（业务错误同样以 HTTP 200 返回，不能只看状态码）
+     */
+    static boolean isSuccessResult(byte[] body) {
+        try {
+            return RESULT_SUCCESS_CODE.equals(OBJECT_MAPPER.readTree(body).path("code").asText());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.service.GatewayMetrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 相同请求合并（single-flight）路由过滤器
+ * 请求键相同（见 RequestKeys，含权限指纹）的并发请求只有第一个转发到下游，
+ * 其余请求等待并复用其 2xx 响应（响应头只复用白名单，见 ResponseSnapshots）；首个请求失败、非 2xx 或被取消时，等待中的请求各自转发
+ * 复用的响应带有 ETag 且与请求的 If-None-Match 匹配时返回 304
+ * 响应内容与调用方身份相关（而不仅取决于权限）的接口需配置 perPrincipal: true，只合并同一调用方的请求
+ *
+ * GET 请求按 paths 合并；POST 请求只合并 postPaths 中列出的无副作用查询接口（请求体摘要计入请求键），
+ * 其余 POST 请求一律直接转发
+ *
+ * 配置示例（需放在 ResponseCache 之后、CircuitBreaker 之前，被合并的请求不占用熔断及并发限制配额）：
+ * <pre>
+ * filters:
+ *   - name: SingleFlight
+ *     args:
+ *       paths: /auth/systemMenuTree
+ *       postPaths: /geographic/country/list
+ *       perPrincipal: false
+ * </pre>
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+@Component
+public class SingleFlightGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<SingleFlightGatewayFilterFactory.Config> {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final GatewayMetrics gatewayMetrics;
+
+    public SingleFlightGatewayFilterFactory(GatewayMetrics gatewayMetrics) {
+        super(Config.class);
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : GatewayMetrics.UNKNOWN_ROUTE;
+        List<String> paths = List.copyOf(config.getPaths());
+        List<String> postPaths = List.copyOf(config.getPostPaths());
+        Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+            String path = request.getURI().getPath();
+            List<String> patterns = HttpMethod.GET.equals(method) ? paths
+                    : HttpMethod.POST.equals(method) ? postPaths : List.of();
+            if (patterns.stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+                return chain.filter(exchange);
+            }
+            return RequestKeys.withRequestKey(routeId, config.isPerPrincipal(), exchange,
+                    (keyedExchange, key) -> handle(keyedExchange, chain, routeId, key, inFlight));
+        };
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, String key,
+                              Map<String, Sinks.One<SharedResponse>> inFlight) {
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            return leader.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> {
+                        if (shared.isEmpty()) {
+                            return chain.filter(exchange);
+                        }
+                        gatewayMetrics.requestCoalesced(routeId);
+                        return writeShared(exchange, shared.get());
+                    });
+        }
+
+        ServerHttpResponseDecorator decorator = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(Flux.from(body))
+                        .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                        .flatMap(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+
+                            HttpStatusCode status = getStatusCode();
+                            if (status != null && status.is2xxSuccessful()) {
+                                // 先移出再发布，之后到达的请求重新转发，不复用已完成的响应
+                                inFlight.remove(key, sink);
+                                sink.tryEmitValue(new SharedResponse(status,
+                                        ResponseSnapshots.replayableHeaders(getHeaders()), bytes));
+                            }
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorator).build())
+                .doFinally(signal -> {
+                    // 异常、非 2xx、取消或无响应体时通知等待中的请求自行转发
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> writeShared(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        String etag = shared.headers().getFirst(HttpHeaders.ETAG);
+        if (ResponseSnapshots.notModified(exchange.getRequest(), etag)) {
+            response.getHeaders().setETag(etag);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    /**
+     * 首个请求的响应快照（只读，供等待中的请求各自写出）
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * 合并的 GET 路径（Ant 风格，StripPrefix 之后的路径），仅适用于无副作用的查询接口
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 合并的 POST 路径（Ant 风格），只能列出以 POST 提交查询条件、无副作用的查询接口
+         */
+        private List<String> postPaths = new ArrayList<>();
+
+        /**
+         * 是否按调用方（用户 ID / 客户端 ID）合并，默认按权限指纹合并
+         */
+        private boolean perPrincipal = false;
+    }
+}
@@ -2,8 +2,7 @@ package com.indigo.gateway.filter;
 
 import com.indigo.cache.session.UserSessionService;
 import com.indigo.core.context.UserContext;
-import com.indigo.core.entity.Result;
-import com.indigo.core.utils.JsonUtils;
+import com.indigo.gateway.handler.UnauthorizedResponseWriter;
 import com.indigo.security.config.SecurityProperties;
 import com.indigo.security.constants.SecurityConstants;
 import com.indigo.security.constants.SecurityError;
@@ -14,9 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
@@ -47,17 +44,21 @@ public class TokenAuthFilter implements GlobalFilter, Ordered {
 
     private final UserSessionService userSessionService;
     private final SecurityProperties securityProperties;
+    private final UnauthorizedResponseWriter unauthorizedResponseWriter;
 
     /**
      * 构造函数：验证 Bean 是否被创建
      * 
      * @param userSessionService 用户会话服务（必须）
      * @param securityProperties 安全配置（通过 GatewayConfig 确保可用）
+     * @param unauthorizedResponseWriter 未授权响应写出器
      */
     public TokenAuthFilter(UserSessionService userSessionService, 
-                          SecurityProperties securityProperties) {
+                          SecurityProperties securityProperties,
+                          UnauthorizedResponseWriter unauthorizedResponseWriter) {
         this.userSessionService = userSessionService;
         this.securityProperties = securityProperties;
+        this.unauthorizedResponseWriter = unauthorizedResponseWriter;
         log.debug("========== [TokenAuthFilter] Bean 已创建，UserSessionService: {}, SecurityProperties: {} ==========",
                 userSessionService != null ? "已注入" : "未注入",
                 securityProperties != null ? "已注入" : "未注入");
@@ -76,6 +77,11 @@ public class TokenAuthFilter implements GlobalFilter, Ordered {
             return chain.filter(exchange);
         }
 
+        // 已通过第三方平台 API Key 认证的请求不再走用户 Token 认证
+        if (exchange.getAttribute(ApiKeyAuthFilter.EXCHANGE_ATTR_API_KEY_PRINCIPAL) != null) {
+            return chain.filter(exchange);
+        }
+
         // 1. 检查白名单
         if (isWhiteListPath(path)) {
             log.info("白名单路径，跳过认证: {}", path);
@@ -110,26 +116,29 @@ public class TokenAuthFilter implements GlobalFilter, Ordered {
             exchange.getAttributes().put(SecurityConstants.EXCHANGE_ATTR_TOKEN, token);
             exchange.getAttributes().put(SecurityConstants.EXCHANGE_ATTR_USER_CONTEXT, userContext);
 
-            // 5. 构建转发请求，注入用户上下文和签名
-            ServerHttpRequest.Builder requestBuilder = request.mutate();
+            // 5. 记录转发请求头，注入用户上下文和签名（由 RequestHeaderMutationFilter 统一应用）
+            RequestHeaderMutations requestHeaders = RequestHeaderMutations.of(exchange);
             
             // 5.1 确保 token 在 Authorization 请求头中
             String tokenHeaderName = TokenConfigHelper.getTokenHeaderName(securityProperties);
             String tokenPrefix = TokenConfigHelper.getTokenPrefix(securityProperties);
             String authHeader = request.getHeaders().getFirst(tokenHeaderName);
             if (!StringUtils.hasText(authHeader) || !authHeader.startsWith(tokenPrefix)) {
-                requestBuilder.header(tokenHeaderName, tokenPrefix + token);
+                requestHeaders.set(tokenHeaderName, tokenPrefix + token);
             }
             
             // 5.2 注入用户上下文和权限（如果启用）
             SecurityProperties.GatewaySignatureConfig signatureConfig = 
                     securityProperties != null ? securityProperties.getGatewaySignature() : null;
             
+            // 权限指纹：用于网关响应缓存按权限隔离（未加载权限时按用户隔离）
+            String permissionFingerprint = "user:" + userContext.getUserId();
+            
             if (signatureConfig != null && signatureConfig.isEnableContextPassing()) {
                 // 编码用户上下文
                 String encodedContext = UserContextCodec.encode(userContext);
                 if (encodedContext != null) {
-                    requestBuilder.header(SecurityConstants.X_USER_CONTEXT_HEADER, encodedContext);
+                    requestHeaders.set(SecurityConstants.X_USER_CONTEXT_HEADER, encodedContext);
                     log.debug("已注入用户上下文到请求头: userId={}", userContext.getUserId());
                 }
                 
@@ -137,7 +146,8 @@ public class TokenAuthFilter implements GlobalFilter, Ordered {
                 List<String> permissions = userSessionService.getUserPermissions(token);
                 if (permissions != null && !permissions.isEmpty()) {
                     String encodedPermissions = String.join(",", permissions);
-                    requestBuilder.header(SecurityConstants.X_USER_PERMISSIONS_HEADER, encodedPermissions);
+                    requestHeaders.set(SecurityConstants.X_USER_PERMISSIONS_HEADER, encodedPermissions);
+                    permissionFingerprint = "permissions:" + encodedPermissions;
                     log.debug("已注入用户权限到请求头: permissions={}", permissions);
                 }
                 
@@ -152,8 +162,8 @@ public class TokenAuthFilter implements GlobalFilter, Ordered {
                     );
                     
                     if (signature != null) {
-                        requestBuilder.header(SecurityConstants.X_GATEWAY_SIGNATURE_HEADER, signature);
-                        requestBuilder.header(SecurityConstants.X_GATEWAY_TIMESTAMP_HEADER, String.valueOf(timestamp));
+                        requestHeaders.set(SecurityConstants.X_GATEWAY_SIGNATURE_HEADER, signature);
+                        requestHeaders.set(SecurityConstants.X_GATEWAY_TIMESTAMP_HEADER, String.valueOf(timestamp));
                         log.debug("已注入 Gateway 签名: userId={}, timestamp={}", 
                                 userContext.getUserId(), timestamp);
                     } else {
@@ -162,12 +172,15 @@ public class TokenAuthFilter implements GlobalFilter, Ordered {
                 }
             }
             
-            ServerHttpRequest modifiedRequest = requestBuilder.build();
+            exchange.getAttributes().put(ResponseCacheGatewayFilterFactory.EXCHANGE_ATTR_PERMISSION_FINGERPRINT,
+                    permissionFingerprint);
+            exchange.getAttributes().put(ResponseCacheGatewayFilterFactory.EXCHANGE_ATTR_PRINCIPAL,
+                    "user:" + userContext.getUserId());
 
             log.debug("Token 认证成功: userId={}, account={}, path={}", 
                     userContext.getUserId(), userContext.getAccount(), path);
 
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            return chain.filter(exchange);
 
         } catch (Exception e) {
             log.error("Token 认证异常: token={}, path={}", token, path, e);
@@ -235,19 +248,10 @@ public class TokenAuthFilter implements GlobalFilter, Ordered {
     }
 
     /**
-     * 返回未授权响应
-     * 使用 Result 统一返回格式和标准错误码
+     * 返回未授权响应（预序列化的 Result，见 UnauthorizedResponseWriter）
      */
     private Mono<Void> unauthorized(ServerWebExchange exchange, SecurityError errorCode) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().add("Content-Type", "application/json;charset=UTF-8");
-        
-        // 使用 Result 统一返回格式
-        Result<Void> result = Result.error(errorCode);
-        String body = JsonUtils.toJsonString(result);
-        
-        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
+        return unauthorizedResponseWriter.write(exchange, errorCode);
     }
 
     @Override
@@ -1,21 +1,36 @@
 package com.indigo.gateway.handler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.gateway.filter.LocaleFilter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Gateway 回退处理器
  * 当下游服务不可用时提供友好的错误响应
+ * 由路由上的 CircuitBreaker 过滤器转发（熔断打开、调用失败/超时、超过自适应并发限制）
+ *
+ * 回退响应体在启动时按回退类型和语言预先序列化为只读缓冲区，
+ * 每次回退只拼接 timestamp 字段，避免故障期间大量回退请求反复构建 Map 和序列化
  *
  * @author 史偕成
  * @date 2025/01/07
@@ -24,77 +39,135 @@ import java.util.Map;
 @Component
 public class FallbackHandler {
 
-    private final ObjectMapper objectMapper;
+    private static final String DEFAULT_LANGUAGE = "zh";
+
+    private static final byte[] BODY_SUFFIX = "}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 回退类型 -> 语言 -> 不含 timestamp 值的响应体前缀（只读）
+     */
+    private final Map<FallbackType, Map<String, ByteBuffer>> bodyPrefixes = new EnumMap<>(FallbackType.class);
 
     public FallbackHandler(@Qualifier("synapseObjectMapper") ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        for (FallbackType type : FallbackType.values()) {
+            Map<String, ByteBuffer> byLanguage = new LinkedHashMap<>();
+            type.messages.forEach((language, message) ->
+                    byLanguage.put(language, serializePrefix(objectMapper, message)));
+            bodyPrefixes.put(type, byLanguage);
+        }
     }
 
     /**
      * 通用服务回退处理
      */
     public Mono<ServerResponse> fallback(ServerRequest request) {
-        log.warn("服务回退触发 - 路径: {}, 方法: {}", request.path(), request.method());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("code", 503);
-        response.put("message", "服务暂时不可用，请稍后重试");
-        response.put("data", null);
-        response.put("timestamp", System.currentTimeMillis());
-        
-        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(response);
+        log.warn("服务回退触发 - 路径: {}, 方法: {}, 原因: {}", request.path(), request.method(), cause(request));
+        return respond(request, FallbackType.DEFAULT);
     }
 
     /**
      * 认证服务回退处理
      */
     public Mono<ServerResponse> authFallback(ServerRequest request) {
-        log.warn("认证服务回退触发 - 路径: {}", request.path());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("code", 503);
-        response.put("message", "认证服务暂时不可用，请稍后重试");
-        response.put("data", null);
-        response.put("timestamp", System.currentTimeMillis());
-        
-        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(response);
+        log.warn("认证服务回退触发 - 路径: {}, 原因: {}", request.path(), cause(request));
+        return respond(request, FallbackType.AUTH);
     }
 
     /**
      * 业务服务回退处理
      */
     public Mono<ServerResponse> businessFallback(ServerRequest request) {
-        log.warn("业务服务回退触发 - 路径: {}", request.path());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("code", 503);
-        response.put("message", "业务服务暂时不可用，请稍后重试");
-        response.put("data", null);
-        response.put("timestamp", System.currentTimeMillis());
-        
-        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(response);
+        log.warn("业务服务回退触发 - 路径: {}, 原因: {}", request.path(), cause(request));
+        return respond(request, FallbackType.BUSINESS);
     }
 
     /**
      * 第三方服务回退处理
      */
     public Mono<ServerResponse> thirdPartyFallback(ServerRequest request) {
-        log.warn("第三方服务回退触发 - 路径: {}", request.path());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("code", 503);
-        response.put("message", "第三方服务暂时不可用，请稍后重试");
-        response.put("data", null);
-        response.put("timestamp", System.currentTimeMillis());
-        
+        log.warn("第三方服务回退触发 - 路径: {}, 原因: {}", request.path(), cause(request));
+        return respond(request, FallbackType.THIRD_PARTY);
+    }
+
+    /**
+     * 写出预序列化的响应体：共享前缀 + timestamp + 共享后缀
+     */
+    private Mono<ServerResponse> respond(ServerRequest request, FallbackType type) {
+        ByteBuffer prefix = bodyPrefix(type, language(request));
+        byte[] timestamp = Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.US_ASCII);
+
         return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(response);
+                .body(BodyInserters.fromDataBuffers(Flux.defer(() -> {
+                    DataBufferFactory bufferFactory = request.exchange().getResponse().bufferFactory();
+                    DataBuffer[] buffers = {
+                            bufferFactory.wrap(prefix.duplicate()),
+                            bufferFactory.wrap(timestamp),
+                            bufferFactory.wrap(BODY_SUFFIX)
+                    };
+                    return Flux.just(buffers);
+                })));
+    }
+
+    private ByteBuffer bodyPrefix(FallbackType type, String language) {
+        Map<String, ByteBuffer> byLanguage = bodyPrefixes.get(type);
+        ByteBuffer prefix = byLanguage.get(language);
+        return prefix != null ? prefix : byLanguage.get(DEFAULT_LANGUAGE);
+    }
+
+    /**
+     * 请求语言：优先使用 LocaleFilter 解析的结果，其次为 X-Locale 请求头
+     */
+    private String language(ServerRequest request) {
+        Locale locale = request.exchange().getAttribute(LocaleFilter.EXCHANGE_ATTR_LOCALE);
+        if (locale != null) {
+            return locale.getLanguage();
+        }
+        String localeHeader = request.headers().firstHeader("X-Locale");
+        if (localeHeader != null && !localeHeader.isEmpty()) {
+            return Locale.forLanguageTag(localeHeader.replace('_', '-')).getLanguage();
+        }
+        return DEFAULT_LANGUAGE;
+    }
+
+    /**
+     * 序列化 {"code":503,"message":"...","data":null,"timestamp": 前缀
+     */
+    private static ByteBuffer serializePrefix(ObjectMapper objectMapper, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("code", 503);
+        response.put("message", message);
+        response.put("data", null);
+        try {
+            String json = objectMapper.writeValueAsString(response);
+            String prefix = json.substring(0, json.lastIndexOf('}')) + ",\"timestamp\":";
+            return ByteBuffer.wrap(prefix.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("回退响应体序列化失败", e);
+        }
+    }
+
+    /**
+     * 触发回退的原因（CircuitBreaker 过滤器写入的异常）
+     */
+    private String cause(ServerRequest request) {
+        Throwable throwable = request.exchange().getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        return throwable != null ? throwable.getClass().getSimpleName() + ": " + throwable.getMessage() : "unknown";
+    }
+
+    /**
+     * 回退类型及各语言的提示信息
+     */
+    private enum FallbackType {
+        DEFAULT("服务暂时不可用，请稍后重试", "Service is temporarily unavailable, please try again later"),
+        AUTH("认证服务暂时不可用，请稍后重试", "Authentication service is temporarily unavailable, please try again later"),
+        BUSINESS("业务服务暂时不可用，请稍后重试", "Business service is temporarily unavailable, please try again later"),
+        THIRD_PARTY("第三方服务暂时不可用，请稍后重试", "Third-party service is temporarily unavailable, please try again later");
+
+        private final Map<String, String> messages;
+
+        FallbackType(String zh, String en) {
+            this.messages = Map.of("zh", zh, "en", en);
+        }
     }
-} 
\ No newline at end of file
+}
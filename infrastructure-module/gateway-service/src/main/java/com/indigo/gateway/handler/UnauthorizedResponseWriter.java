@@ -0,0 +1,91 @@
+package com.indigo.gateway.handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.indigo.core.constants.ErrorCode;
+import com.indigo.core.entity.Result;
+import com.indigo.core.utils.JsonUtils;
+import com.indigo.gateway.filter.LocaleFilter;
+import com.indigo.gateway.service.GatewayMetrics;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 未授权响应写出器（TokenAuthFilter、ApiKeyAuthFilter 共用）
+ * 响应体按错误码（SecurityError、GatewayError）和请求语言缓存为只读缓冲区，写出时直接包装共享缓冲区，不再逐次序列化 Result
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Component
+public class UnauthorizedResponseWriter {
+
+    private static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    private final GatewayMetrics gatewayMetrics;
+
+    /**
+     * 错误码 + Locale -> 序列化后的 Result（只读）
+     */
+    private final Cache<BodyKey, ByteBuffer> bodies = Caffeine.newBuilder()
+            .maximumSize(256)
+            .build();
+
+    public UnauthorizedResponseWriter(GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    /**
+     * 返回未授权响应
+     * 使用 Result 统一返回格式和标准错误码
+     */
+    public Mono<Void> write(ServerWebExchange exchange, ErrorCode errorCode) {
+        return write(exchange, errorCode, HttpStatus.UNAUTHORIZED);
+    }
+
+    /**
+     * 按指定状态码返回认证失败响应（如认证服务不可用时返回 503）
+     */
+    public Mono<Void> write(ServerWebExchange exchange, ErrorCode errorCode, HttpStatus status) {
+        gatewayMetrics.authFailure(errorCode);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(APPLICATION_JSON_UTF8);
+
+        // 缓存键使用与序列化相同的完整 Locale（zh_CN 与 zh_TW 的消息不同）
+        Locale locale = exchange.getAttribute(LocaleFilter.EXCHANGE_ATTR_LOCALE);
+        ByteBuffer body = bodies.get(new BodyKey(errorCode, locale),
+                key -> serialize(key.errorCode(), key.locale()));
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body.duplicate())));
+    }
+
+    /**
+     * 在请求语言环境下序列化 Result（错误消息按 LocaleContextHolder 国际化时生效）
+     */
+    private static ByteBuffer serialize(ErrorCode errorCode, Locale locale) {
+        Locale previous = LocaleContextHolder.getLocale();
+        try {
+            if (locale != null) {
+                LocaleContextHolder.setLocale(locale);
+            }
+            Result<Void> result = Result.error(errorCode);
+            byte[] bytes = JsonUtils.toJsonString(result).getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        } finally {
+            LocaleContextHolder.setLocale(previous);
+        }
+    }
+
+    private record BodyKey(ErrorCode errorCode, Locale locale) {
+    }
+}
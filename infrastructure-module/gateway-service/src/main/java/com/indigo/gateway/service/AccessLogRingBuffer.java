@@ -0,0 +1,78 @@
+package com.indigo.gateway.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界无锁环形缓冲区（多生产者 / 单消费者）
+ * 每个槽位带序号：生产者通过 CAS 推进写指针占位，写入后发布序号；消费者按序号判断槽位是否可读
+ * 缓冲区满时 offer 直接返回 false，不阻塞请求线程
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+final class AccessLogRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] entries;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 仅由消费者线程读写
+     */
+    private long head;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.mask = capacity - 1;
+        this.entries = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入元素（可多线程调用）
+     *
+     * @return 缓冲区已满时返回 false
+     */
+    boolean offer(E entry) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entries[index] = entry;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 读取元素（仅限单个消费者线程调用）
+     *
+     * @return 缓冲区为空时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E entry = (E) entries[index];
+        entries[index] = null;
+        sequences.lazySet(index, head + entries.length);
+        head++;
+        return entry;
+    }
+}
@@ -0,0 +1,159 @@
+package com.indigo.gateway.service;
+
+import com.indigo.gateway.config.GatewayConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 网关访问日志
+ * 请求线程只负责采样判断并将日志条目写入环形缓冲区，格式化与输出由后台线程完成
+ *
+ * 采样规则：
+ * 1. 4xx/5xx 和异常请求始终记录
+ * 2. 耗时超过 slowThresholdMs 的请求始终记录
+ * 3. 其余成功请求按 successSampleRate 采样
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+@Component
+public class AccessLogService {
+
+    /**
+     * 独立的访问日志 Logger，便于在日志配置中单独输出到文件
+     */
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("com.indigo.gateway.access");
+
+    private final GatewayConfig gatewayConfig;
+    private final AccessLogRingBuffer<AccessLogEntry> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AccessLogService(GatewayConfig gatewayConfig) {
+        this.gatewayConfig = gatewayConfig;
+        this.buffer = new AccessLogRingBuffer<>(gatewayConfig.getAccessLog().getBufferSize());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "gateway-access-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 记录一次请求（请求线程调用，不做格式化，不阻塞）
+     */
+    public void record(AccessLogEntry entry) {
+        GatewayConfig.AccessLogConfig config = gatewayConfig.getAccessLog();
+        if (!config.isEnabled() || !shouldLog(entry, config)) {
+            return;
+        }
+        if (!buffer.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private boolean shouldLog(AccessLogEntry entry, GatewayConfig.AccessLogConfig config) {
+        if (entry.error() != null || entry.status() >= 400) {
+            return true;
+        }
+        if (entry.durationMs() >= config.getSlowThresholdMs()) {
+            return true;
+        }
+        double rate = config.getSuccessSampleRate();
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void drainLoop() {
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, gatewayConfig.getAccessLog().getDrainIntervalMs()));
+        while (running) {
+            if (drain() == 0) {
+                reportDropped();
+                LockSupport.parkNanos(this, parkNanos);
+            }
+        }
+        drain();
+        reportDropped();
+    }
+
+    private int drain() {
+        int count = 0;
+        AccessLogEntry entry;
+        while ((entry = buffer.poll()) != null) {
+            write(entry);
+            count++;
+        }
+        return count;
+    }
+
+    private void write(AccessLogEntry entry) {
+        try {
+            if (entry.error() != null || entry.status() >= 500) {
+                ACCESS_LOG.error("requestId={} method={} path={} query={} remote={} status={} durationMs={} error={}",
+                        entry.requestId(), entry.method(), entry.path(), entry.query(), entry.remoteAddress(),
+                        entry.status(), entry.durationMs(), entry.error() != null ? entry.error().getMessage() : null,
+                        entry.error());
+            } else if (entry.status() >= 400 || entry.durationMs() >= gatewayConfig.getAccessLog().getSlowThresholdMs()) {
+                ACCESS_LOG.warn("requestId={} method={} path={} query={} remote={} status={} durationMs={}",
+                        entry.requestId(), entry.method(), entry.path(), entry.query(), entry.remoteAddress(),
+                        entry.status(), entry.durationMs());
+            } else {
+                ACCESS_LOG.info("requestId={} method={} path={} query={} remote={} status={} durationMs={}",
+                        entry.requestId(), entry.method(), entry.path(), entry.query(), entry.remoteAddress(),
+                        entry.status(), entry.durationMs());
+            }
+        } catch (Exception e) {
+            log.warn("写入访问日志失败: requestId={}", entry.requestId(), e);
+        }
+    }
+
+    private void reportDropped() {
+        long count = dropped.getAndSet(0);
+        if (count > 0) {
+            log.warn("访问日志缓冲区已满，丢弃 {} 条日志", count);
+        }
+    }
+
+    /**
+     * 访问日志条目
+     *
+     * @param requestId     请求 ID
+     * @param method        请求方法
+     * @param path          请求路径
+     * @param query         原始查询串（可为空）
+     * @param remoteAddress 客户端地址（可为空）
+     * @param status        响应状态码
+     * @param durationMs    耗时（毫秒）
+     * @param error         异常（可为空）
+     */
+    public record AccessLogEntry(String requestId, String method, String path, String query,
+                                 Object remoteAddress, int status, long durationMs, Throwable error) {
+    }
+}
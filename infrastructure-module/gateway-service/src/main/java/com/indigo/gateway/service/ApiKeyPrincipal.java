@@ -0,0 +1,37 @@
+package com.indigo.gateway.service;
+
+/**
+ * 第三方平台 API Key 校验结果
+ *
+ * @param status 校验状态
+ * @param id     API Key ID（仅 VALID 时有值）
+ * @param name   第三方平台名称（仅 VALID 时有值）
+ * @author 史偕成
+ * @date 2025/12/01
+ */
+public record ApiKeyPrincipal(Status status, String id, String name) {
+
+    /**
+     * 无效 Key（不存在、停用或过期），会被负缓存
+     */
+    public static final ApiKeyPrincipal INVALID = new ApiKeyPrincipal(Status.INVALID, null, null);
+
+    /**
+     * IAM 不可用，无法判断 Key 是否有效，不会被缓存
+     */
+    public static final ApiKeyPrincipal UNAVAILABLE = new ApiKeyPrincipal(Status.UNAVAILABLE, null, null);
+
+    public static ApiKeyPrincipal valid(String id, String name) {
+        return new ApiKeyPrincipal(Status.VALID, id, name);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public enum Status {
+        VALID,
+        INVALID,
+        UNAVAILABLE
+    }
+}
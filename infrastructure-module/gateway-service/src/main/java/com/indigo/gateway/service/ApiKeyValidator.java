@@ -0,0 +1,121 @@
+package com.indigo.gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.indigo.gateway.config.GatewayConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 第三方平台 API Key 校验器
+ * 通过本地缓存向 IAM 校验 API Key，避免每个第三方请求都访问 IAM：
+ * 1. 有效 Key 缓存 cacheTtl 秒，无效 Key 缓存 negativeCacheTtl 秒（负缓存）
+ * 2. 条目超过 refreshAfter 秒后，下次访问时在后台异步刷新，当前请求仍使用旧值
+ * 3. IAM 调用失败时不缓存结果，刷新失败时保留旧值
+ *
+ * @author 史偕成
+ * @date 2025/12/01
+ */
+@Slf4j
+@Component
+public class ApiKeyValidator {
+
+    private final GatewayConfig.ThirdPartyConfig config;
+    private final WebClient webClient;
+    private final AsyncLoadingCache<String, ApiKeyPrincipal> cache;
+
+    public ApiKeyValidator(GatewayConfig gatewayConfig,
+                           ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        this.config = gatewayConfig.getThirdParty();
+        this.webClient = WebClient.builder()
+                .filter(loadBalancerFunction)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfter(new PrincipalExpiry(
+                        TimeUnit.SECONDS.toNanos(config.getCacheTtl()),
+                        TimeUnit.SECONDS.toNanos(config.getNegativeCacheTtl())))
+                .refreshAfterWrite(Duration.ofSeconds(config.getRefreshAfter()))
+                .buildAsync((apiKey, executor) -> load(apiKey));
+    }
+
+    /**
+     * 校验 API Key
+     *
+     * @param apiKey API Key 明文
+     * @return 校验结果，IAM 不可用时返回 {@link ApiKeyPrincipal#UNAVAILABLE}
+     */
+    public Mono<ApiKeyPrincipal> validate(String apiKey) {
+        return Mono.fromFuture(cache.get(apiKey))
+                .onErrorResume(e -> {
+                    log.error("调用 IAM 校验 API Key 失败: uri={}", config.getValidateUri(), e);
+                    return Mono.just(ApiKeyPrincipal.UNAVAILABLE);
+                });
+    }
+
+    /**
+     * 使指定 Key 的缓存失效
+     *
+     * @param apiKey API Key 明文
+     */
+    public void invalidate(String apiKey) {
+        cache.synchronous().invalidate(apiKey);
+    }
+
+    /**
+     * 调用 IAM 校验接口
+     * 返回 Result&lt;ApiKeyVO&gt;，data 为空表示 Key 无效
+     */
+    private CompletableFuture<ApiKeyPrincipal> load(String apiKey) {
+        return webClient.post()
+                .uri(config.getValidateUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("apiKey", apiKey))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(Duration.ofSeconds(config.getTimeout()))
+                .map(this::toPrincipal)
+                .toFuture();
+    }
+
+    private ApiKeyPrincipal toPrincipal(JsonNode result) {
+        JsonNode data = result.path("data");
+        if (data.isMissingNode() || data.isNull() || !data.path("enabled").asBoolean(false)) {
+            return ApiKeyPrincipal.INVALID;
+        }
+        return ApiKeyPrincipal.valid(data.path("id").asText(null), data.path("name").asText(null));
+    }
+
+    /**
+     * 有效 Key 与无效 Key 使用不同的过期时间
+     */
+    private record PrincipalExpiry(long ttlNanos, long negativeTtlNanos)
+            implements Expiry<String, ApiKeyPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, ApiKeyPrincipal value, long currentTime) {
+            return value.isValid() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ApiKeyPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ApiKeyPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.indigo.gateway.service;
+
+import com.indigo.core.constants.ErrorCode;
+import com.indigo.gateway.filter.GradientConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 网关指标
+ * 通过 actuator（/actuator/metrics、/actuator/prometheus）导出：
+ * - synapse.gateway.requests：按路由、状态码统计的请求耗时（p50/p99/p999，HdrHistogram 滑动窗口）
+ * - synapse.gateway.requests.active：按路由统计的处理中请求数
+ * - synapse.gateway.auth.failures：按错误码（SecurityError、GatewayError）统计的认证失败次数
+ * - synapse.gateway.concurrency.limit / rejected：按路由统计的自适应并发限制及拒绝次数
+ * - synapse.gateway.requests.coalesced：按路由统计的被合并（复用进行中请求响应）的请求数
+ *
+ * Meter 按标签组合缓存，请求路径上不重复构建
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Component
+public class GatewayMetrics {
+
+    /**
+     * 未匹配到路由时使用的路由标签
+     */
+    public static final String UNKNOWN_ROUTE = "unknown";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeRequests = new ConcurrentHashMap<>();
+    private final Map<String, Counter> authFailureCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> concurrencyRejectedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicReference<GradientConcurrencyLimiter>> concurrencyLimiters = new ConcurrentHashMap<>();
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 获取 exchange 匹配到的路由 ID
+     */
+    public static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : UNKNOWN_ROUTE;
+    }
+
+    /**
+     * 请求开始，处理中请求数 +1
+     */
+    public void requestStarted(String routeId) {
+        active(routeId).incrementAndGet();
+    }
+
+    /**
+     * 请求结束，处理中请求数 -1 并记录耗时
+     */
+    public void requestCompleted(String routeId, int status, long durationNanos) {
+        active(routeId).decrementAndGet();
+        requestTimer(routeId, status).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 认证失败计数
+     */
+    public void authFailure(ErrorCode error) {
+        String errorTag = String.valueOf(error);
+        authFailureCounters.computeIfAbsent(errorTag, key -> Counter.builder("synapse.gateway.auth.failures")
+                .description("Gateway authentication failures")
+                .tag("error", key)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * 注册路由的自适应并发限制器（路由刷新后以新的限制器为准）
+     */
+    public void concurrencyLimiter(String routeId, GradientConcurrencyLimiter limiter) {
+        concurrencyLimiters.computeIfAbsent(routeId, key -> {
+            AtomicReference<GradientConcurrencyLimiter> holder = new AtomicReference<>(limiter);
+            Gauge.builder("synapse.gateway.concurrency.limit", holder, ref -> ref.get().getLimit())
+                    .description("Adaptive concurrency limit by route")
+                    .tag("route", key)
+                    .register(meterRegistry);
+            return holder;
+        }).set(limiter);
+    }
+
+    /**
+     * 自适应并发限制拒绝计数
+     */
+    public void concurrencyRejected(String routeId) {
+        concurrencyRejectedCounters.computeIfAbsent(routeId, key -> Counter.builder("synapse.gateway.concurrency.rejected")
+                .description("Requests rejected by the adaptive concurrency limit")
+                .tag("route", key)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * 请求合并计数（复用进行中的相同请求的响应，未转发到下游）
+     */
+    public void requestCoalesced(String routeId) {
+        coalescedCounters.computeIfAbsent(routeId, key -> Counter.builder("synapse.gateway.requests.coalesced")
+                .description("Requests served from an identical in-flight request")
+                .tag("route", key)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private Timer requestTimer(String routeId, int status) {
+        return requestTimers.computeIfAbsent(routeId + '|' + status, key -> Timer.builder("synapse.gateway.requests")
+                .description("Gateway request latency by route and status")
+                .tag("route", routeId)
+                .tag("status", String.valueOf(status))
+                .tag("outcome", outcome(status))
+                .publishPercentiles(PERCENTILES)
+                .distributionStatisticExpiry(Duration.ofMinutes(2))
+                .distributionStatisticBufferLength(3)
+                .register(meterRegistry));
+    }
+
+    private AtomicInteger active(String routeId) {
+        return activeRequests.computeIfAbsent(routeId, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("synapse.gateway.requests.active", counter, AtomicInteger::get)
+                    .description("Gateway in-flight requests by route")
+                    .tag("route", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (status >= 300) {
+            return "REDIRECTION";
+        }
+        return "SUCCESS";
+    }
+}
@@ -0,0 +1,216 @@
+package com.indigo.gateway.service;
+
+import com.indigo.gateway.config.GatewayConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 最小延迟负载均衡器（Peak EWMA + Power of Two Choices）
+ * 每个实例维护按时间衰减的峰值 EWMA 延迟和处理中请求数，
+ * 选择时随机取两个实例，选择 EWMA × (处理中请求数 + 1) 较小的一个，
+ * 慢实例和积压实例自动分得更少的流量，同时避免所有请求同时涌向同一个"最快"实例；
+ * 尚无样本的新实例按其他实例的平均延迟（都没有时为 initial-rtt-ms）计算代价，处理中请求数从第一个请求起即计入，
+ * 避免新上线实例在首个响应返回前赢得所有比较
+ *
+ * 同时实现 LoadBalancerLifecycle，由 ReactiveLoadBalancerClientFilter / WebClient 负载均衡回调反馈每次调用的耗时
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+public class LeastLatencyLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final GatewayConfig gatewayConfig;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public LeastLatencyLoadBalancer(String serviceId,
+                                    ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    GatewayConfig gatewayConfig) {
+        this.serviceId = serviceId;
+        this.supplierProvider = supplierProvider;
+        this.gatewayConfig = gatewayConfig;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("没有可用的服务实例: serviceId={}", serviceId);
+            return new EmptyResponse();
+        }
+        pruneStats(instances);
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        double defaultRtt = defaultRttNanos(instances);
+        return new DefaultResponse(statsOf(a).cost(defaultRtt) <= statsOf(b).cost(defaultRtt) ? a : b);
+    }
+
+    /**
+     * 无样本实例的默认延迟：已有样本实例的平均 EWMA，都没有样本时使用 initial-rtt-ms
+     */
+    private double defaultRttNanos(List<ServiceInstance> instances) {
+        double sum = 0;
+        int sampled = 0;
+        for (ServiceInstance instance : instances) {
+            InstanceStats instanceStats = stats.get(key(instance));
+            double ewma = instanceStats != null ? instanceStats.ewma() : -1;
+            if (ewma >= 0) {
+                sum += ewma;
+                sampled++;
+            }
+        }
+        return sampled > 0 ? sum / sampled
+                : TimeUnit.MILLISECONDS.toNanos(gatewayConfig.getLoadBalancer().getInitialRttMs());
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext timedContext && timedContext.getRequestStartTime() == 0) {
+            timedContext.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            statsOf(lbResponse.getServer()).inflight.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats instanceStats = statsOf(lbResponse.getServer());
+        instanceStats.inflight.decrementAndGet();
+
+        long now = System.nanoTime();
+        long rtt = 0;
+        if (completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timedContext
+                && timedContext.getRequestStartTime() > 0) {
+            rtt = now - timedContext.getRequestStartTime();
+        }
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || isServerError(completionContext.getClientResponse());
+        if (failed) {
+            rtt = Math.max(rtt, TimeUnit.MILLISECONDS.toNanos(gatewayConfig.getLoadBalancer().getFailurePenaltyMs()));
+        } else if (completionContext.status() == CompletionContext.Status.DISCARD || rtt <= 0) {
+            return;
+        }
+        instanceStats.observe(rtt, now, TimeUnit.MILLISECONDS.toNanos(gatewayConfig.getLoadBalancer().getDecayTimeMs()));
+    }
+
+    private static boolean isServerError(ResponseData responseData) {
+        return responseData != null && responseData.getHttpStatus() != null
+                && responseData.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * 实例下线后清理统计，避免统计表随实例变更无限增长
+     */
+    private void pruneStats(List<ServiceInstance> instances) {
+        if (stats.size() <= instances.size() * 2) {
+            return;
+        }
+        Set<String> alive = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            alive.add(key(instance));
+        }
+        stats.entrySet().removeIf(entry -> !alive.contains(entry.getKey()) && entry.getValue().inflight.get() <= 0);
+    }
+
+    /**
+     * 实例统计：峰值 EWMA 延迟 + 处理中请求数
+     */
+    private static final class InstanceStats {
+
+        private final AtomicInteger inflight = new AtomicInteger();
+        private double ewmaNanos;
+        private long lastUpdateNanos;
+
+        /**
+         * 记录一次调用耗时：高于当前值时直接取峰值，否则按距上次更新的时间指数衰减
+         */
+        synchronized void observe(long rttNanos, long now, long decayNanos) {
+            if (lastUpdateNanos == 0 || rttNanos > ewmaNanos) {
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        /**
+         * 当前 EWMA 延迟，尚无样本时返回 -1
+         */
+        synchronized double ewma() {
+            return lastUpdateNanos == 0 ? -1 : ewmaNanos;
+        }
+
+        /**
+         * 负载代价，尚无样本时按 defaultRttNanos 计算
+         */
+        synchronized double cost(double defaultRttNanos) {
+            double rtt = lastUpdateNanos == 0 ? defaultRttNanos : ewmaNanos;
+            return rtt * (inflight.get() + 1);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.indigo.gateway.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求 ID 生成器
+ * 格式：{实例前缀}-{单调递增序号（36 进制）}，实例前缀在启动时随机生成，用于区分多个网关实例
+ * 相比 UUID.randomUUID() 不依赖 SecureRandom，高并发下无竞争
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Component
+public class RequestIdGenerator {
+
+    private final String prefix;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RequestIdGenerator() {
+        byte[] bytes = new byte[4];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        this.prefix = HexFormat.of().formatHex(bytes) + "-";
+    }
+
+    public String nextId() {
+        return prefix + Long.toString(sequence.incrementAndGet(), 36);
+    }
+}
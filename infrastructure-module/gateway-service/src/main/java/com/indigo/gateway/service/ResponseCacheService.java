@@ -0,0 +1,125 @@
+package com.indigo.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.indigo.foundation.common.cache.GatewayCacheService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+
+import java.util.Set;
+
+/**
+ * 网关响应缓存
+ * 缓存只读接口的完整响应（状态码、响应头、响应体、ETag），每条缓存带 TTL 和失效标签
+ *
+ * 失效：IAM / MDM 数据变更后通过 GatewayCacheService 向 Redis 频道 {@value GatewayCacheService#EVICT_CHANNEL} 发布标签（如 mdm:country），
+ * 网关订阅后清除带该标签的缓存；Redis 不可用时仅依赖 TTL 过期
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+@Component
+public class ResponseCacheService {
+
+    /**
+     * 缓存响应体总大小上限（字节）
+     */
+    private static final long MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+
+    private final ObjectProvider<ReactiveRedisConnectionFactory> redisConnectionFactory;
+    private final Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+            .maximumWeight(MAXIMUM_WEIGHT)
+            .weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+            .expireAfter(new TtlExpiry())
+            .build();
+
+    private ReactiveRedisMessageListenerContainer listenerContainer;
+    private Disposable subscription;
+
+    public ResponseCacheService(ObjectProvider<ReactiveRedisConnectionFactory> redisConnectionFactory) {
+        this.redisConnectionFactory = redisConnectionFactory;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        ReactiveRedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+        if (connectionFactory == null) {
+            log.warn("未找到 ReactiveRedisConnectionFactory，响应缓存仅依赖 TTL 失效");
+            return;
+        }
+        listenerContainer = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        subscription = listenerContainer.receive(ChannelTopic.of(GatewayCacheService.EVICT_CHANNEL))
+                .map(message -> message.getMessage())
+                .retry()
+                .subscribe(this::evictByTag, e -> log.warn("响应缓存失效事件订阅中断", e));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (listenerContainer != null) {
+            listenerContainer.destroyLater().subscribe();
+        }
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * 清除带指定标签的缓存
+     */
+    public void evictByTag(String tag) {
+        cache.asMap().values().removeIf(response -> response.tags().contains(tag));
+        log.debug("响应缓存已按标签失效: tag={}", tag);
+    }
+
+    /**
+     * 缓存的响应
+     *
+     * @param status     状态码
+     * @param headers    响应头（只读）
+     * @param body       响应体
+     * @param etag       ETag（带引号）
+     * @param tags       失效标签
+     * @param ttlNanos   存活时间
+     */
+    public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                                 Set<String> tags, long ttlNanos) {
+    }
+
+    private static final class TtlExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.indigo.gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.indigo.gateway.config.GatewayConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 支持语言列表
+ * 定时从 mdm-service 拉取启用的语言，供 LocaleFilter 进行 Accept-Language 协商
+ * 启动时 mdm-service 可能尚未注册到服务发现，首次拉取失败按指数退避（1s 起，最长 30s）重试直到成功，
+ * 之后按刷新间隔定时拉取，拉取失败时保留上一次的列表
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+@Slf4j
+@Component
+public class SupportedLanguageService {
+
+    private static final Duration INITIAL_RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    private final GatewayConfig gatewayConfig;
+    private final WebClient webClient;
+
+    private volatile List<Locale> supportedLocales = Collections.emptyList();
+    private Disposable refreshTask;
+
+    public SupportedLanguageService(GatewayConfig gatewayConfig,
+                                    ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        this.gatewayConfig = gatewayConfig;
+        this.webClient = WebClient.builder()
+                .filter(loadBalancerFunction)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        GatewayConfig.LocaleConfig config = gatewayConfig.getLocale();
+        if (!config.isEnabled() || !StringUtils.hasText(config.getSupportedLanguagesUri())) {
+            return;
+        }
+        String uri = config.getSupportedLanguagesUri();
+        Duration interval = Duration.ofSeconds(Math.max(1, config.getSupportedLanguagesRefreshInterval()));
+        refreshTask = fetch(uri)
+                .doOnError(e -> log.warn("首次拉取支持语言列表失败，稍后重试: uri={}, error={}", uri, e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, INITIAL_RETRY_BACKOFF).maxBackoff(MAX_RETRY_BACKOFF))
+                .concatWith(Flux.interval(interval, interval).concatMap(tick -> fetch(uri)
+                        .onErrorResume(e -> {
+                            log.warn("拉取支持语言列表失败，继续使用上一次的列表: uri={}, error={}", uri, e.getMessage());
+                            return Mono.empty();
+                        })))
+                .subscribe(this::update);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    /**
+     * 当前支持的语言列表（不可变），未拉取到时为空
+     */
+    public List<Locale> getSupportedLocales() {
+        return supportedLocales;
+    }
+
+    private Mono<List<Locale>> fetch(String uri) {
+        return webClient.post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("enabled", true))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(Duration.ofSeconds(10))
+                .map(this::toLocales);
+    }
+
+    private List<Locale> toLocales(JsonNode result) {
+        List<Locale> locales = new ArrayList<>();
+        for (JsonNode language : result.path("data")) {
+            String code = language.path("code").asText(null);
+            if (StringUtils.hasText(code) && language.path("enabled").asBoolean(true)) {
+                Locale locale = Locale.forLanguageTag(code.trim().replace('_', '-'));
+                if (!locale.getLanguage().isEmpty()) {
+                    locales.add(locale);
+                }
+            }
+        }
+        return List.copyOf(locales);
+    }
+
+    private void update(List<Locale> locales) {
+        if (!locales.equals(supportedLocales)) {
+            log.info("支持语言列表已更新: {}", locales);
+            supportedLocales = locales;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.config.GatewayConfig;
+import com.indigo.gateway.constants.GatewayError;
+import com.indigo.gateway.handler.UnauthorizedResponseWriter;
+import com.indigo.gateway.service.ApiKeyPrincipal;
+import com.indigo.gateway.service.ApiKeyValidator;
+import com.indigo.security.constants.SecurityConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ApiKeyAuthFilter 第三方平台认证与身份请求头清理
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class ApiKeyAuthFilterTest {
+
+    private static final String PATH = "/api/third-party/orders";
+
+    private ApiKeyValidator validator;
+    private UnauthorizedResponseWriter responseWriter;
+    private ApiKeyAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        validator = mock(ApiKeyValidator.class);
+        responseWriter = mock(UnauthorizedResponseWriter.class);
+        when(responseWriter.write(any(), any())).thenReturn(Mono.empty());
+        when(responseWriter.write(any(), any(), any())).thenReturn(Mono.empty());
+        filter = new ApiKeyAuthFilter(new GatewayConfig(), validator, responseWriter);
+    }
+
+    @Test
+    void validKeyStripsForgedIdentityHeadersAndInjectsClientId() {
+        when(validator.validate("k1")).thenReturn(Mono.just(ApiKeyPrincipal.valid("c1", "ERP")));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH)
+                .header("X-API-Key", " k1 ")
+                .header(SecurityConstants.X_USER_CONTEXT_HEADER, "forged")
+                .header(SecurityConstants.X_USER_PERMISSIONS_HEADER, "*")
+                .header(SecurityConstants.X_GATEWAY_SIGNATURE_HEADER, "forged")
+                .header(SecurityConstants.X_GATEWAY_TIMESTAMP_HEADER, "1"));
+
+        HttpHeaders forwarded = forward(exchange);
+
+        assertThat(forwarded.getFirst("X-Client-Id")).isEqualTo("c1");
+        assertThat(forwarded).doesNotContainKeys("X-API-Key",
+                SecurityConstants.X_USER_CONTEXT_HEADER,
+                SecurityConstants.X_USER_PERMISSIONS_HEADER,
+                SecurityConstants.X_GATEWAY_SIGNATURE_HEADER,
+                SecurityConstants.X_GATEWAY_TIMESTAMP_HEADER);
+        assertThat(exchange.<ApiKeyPrincipal>getAttribute(ApiKeyAuthFilter.EXCHANGE_ATTR_API_KEY_PRINCIPAL))
+                .isEqualTo(ApiKeyPrincipal.valid("c1", "ERP"));
+    }
+
+    @Test
+    void missingKeyIsRejectedWithoutValidation() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH));
+
+        assertThat(forward(exchange)).isNull();
+        verify(responseWriter).write(exchange, GatewayError.API_KEY_MISSING);
+        verify(validator, never()).validate(anyString());
+    }
+
+    @Test
+    void invalidKeyIsRejected() {
+        when(validator.validate("bad")).thenReturn(Mono.just(ApiKeyPrincipal.INVALID));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH).header("X-API-Key", "bad"));
+
+        assertThat(forward(exchange)).isNull();
+        verify(responseWriter).write(exchange, GatewayError.API_KEY_INVALID);
+    }
+
+    @Test
+    void unavailableIamAnswers503WithRetryAfter() {
+        when(validator.validate("k1")).thenReturn(Mono.just(ApiKeyPrincipal.UNAVAILABLE));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH).header("X-API-Key", "k1"));
+
+        assertThat(forward(exchange)).isNull();
+        verify(responseWriter).write(eq(exchange), eq(GatewayError.API_KEY_UNAVAILABLE), eq(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+
+    @Test
+    void otherPathsPassThroughToTokenAuthentication() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/iam/user/info")
+                .header(SecurityConstants.X_USER_CONTEXT_HEADER, "kept-for-token-filter"));
+
+        assertThat(forward(exchange)).isNotNull();
+        verify(validator, never()).validate(anyString());
+        assertThat(exchange.getAttributes()).doesNotContainKey(ApiKeyAuthFilter.EXCHANGE_ATTR_API_KEY_PRINCIPAL);
+    }
+
+    /**
+     * 依次执行 ApiKeyAuthFilter 和 RequestHeaderMutationFilter，返回转发给下游的请求头；被拒绝时为 null
+     */
+    private HttpHeaders forward(ServerWebExchange exchange) {
+        AtomicReference<ServerWebExchange> routed = new AtomicReference<>();
+        GatewayFilterChain downstream = mutated -> {
+            routed.set(mutated);
+            return Mono.empty();
+        };
+        RequestHeaderMutationFilter mutationFilter = new RequestHeaderMutationFilter();
+        filter.filter(exchange, authenticated -> mutationFilter.filter(authenticated, downstream)).block();
+        return routed.get() != null ? routed.get().getRequest().getHeaders() : null;
+    }
+}
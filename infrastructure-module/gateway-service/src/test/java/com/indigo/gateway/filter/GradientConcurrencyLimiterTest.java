@@ -0,0 +1,94 @@
+package com.indigo.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GradientConcurrencyLimiter 许可与限制调整
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class GradientConcurrencyLimiterTest {
+
+    @Test
+    void initialLimitIsClampedToRange() {
+        assertThat(new GradientConcurrencyLimiter(500, 5, 100, 0.2).getLimit()).isEqualTo(100);
+        assertThat(new GradientConcurrencyLimiter(1, 5, 100, 0.2).getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void tryAcquireStopsAtLimitUntilReleased() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(3, 1, 10, 0.2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(0, false);
+        assertThat(limiter.getInflight()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void droppedCallsBackOffDownToMinLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 5, 100, 0.2);
+
+        limiter.tryAcquire();
+        limiter.release(millis(10), true);
+        assertThat(limiter.getLimit()).isEqualTo(18);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(millis(10), true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void limitGrowsUnderSteadyLatencyAndShrinksWhenDownstreamQueues() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 5, 200, 0.2);
+
+        saturate(limiter, millis(10), 2_000);
+        assertThat(limiter.getLimit()).isEqualTo(200);
+
+        // RTT 升高 10 倍，短期均值远高于长期基线，梯度降到下限附近
+        saturate(limiter, millis(100), 200);
+        assertThat(limiter.getLimit()).isLessThan(50);
+
+        saturate(limiter, millis(10), 3_000);
+        assertThat(limiter.getLimit()).isEqualTo(200);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyIdle() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 5, 200, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(millis(10), false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    /**
+     * 保持处理中请求数等于限制，每次释放一个许可
+     */
+    private static void saturate(GradientConcurrencyLimiter limiter, long rttNanos, int completions) {
+        for (int i = 0; i < completions; i++) {
+            while (limiter.tryAcquire()) {
+                // 占满许可
+            }
+            limiter.release(rttNanos, false);
+        }
+    }
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
@@ -0,0 +1,80 @@
+package com.indigo.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HedgingPolicy 对冲延迟分位值与对冲预算
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class HedgingPolicyTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void delayStartsAtMaxDelay() {
+        HedgingPolicy policy = new HedgingPolicy(Duration.ofMillis(10), Duration.ofMillis(500), 0.95, 5, TIMEOUT);
+
+        assertThat(policy.hedgeDelay()).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void delayFollowsPercentileOfRecordedLatencies() {
+        HedgingPolicy policy = new HedgingPolicy(Duration.ofMillis(1), Duration.ofMillis(500), 0.95, 5, TIMEOUT);
+
+        // 1..128 ms，p95 为第 122 个样本
+        for (int i = 1; i <= 128; i++) {
+            policy.recordLatency(Duration.ofMillis(i).toNanos());
+        }
+
+        assertThat(policy.hedgeDelay()).isEqualTo(Duration.ofMillis(122));
+    }
+
+    @Test
+    void delayIsClampedToRange() {
+        HedgingPolicy fast = new HedgingPolicy(Duration.ofMillis(20), Duration.ofMillis(500), 0.95, 5, TIMEOUT);
+        HedgingPolicy slow = new HedgingPolicy(Duration.ofMillis(20), Duration.ofMillis(500), 0.95, 5, TIMEOUT);
+
+        for (int i = 0; i < 64; i++) {
+            fast.recordLatency(Duration.ofMillis(1).toNanos());
+            slow.recordLatency(Duration.ofSeconds(2).toNanos());
+        }
+
+        assertThat(fast.hedgeDelay()).isEqualTo(Duration.ofMillis(20));
+        assertThat(slow.hedgeDelay()).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void budgetAllowsOneHedgePerBudgetShareOfRequests() {
+        HedgingPolicy policy = new HedgingPolicy(Duration.ofMillis(10), Duration.ofMillis(500), 0.95, 10, TIMEOUT);
+
+        for (int i = 0; i < 9; i++) {
+            policy.onRequest();
+        }
+        assertThat(policy.tryAcquireHedge()).isFalse();
+
+        policy.onRequest();
+        assertThat(policy.tryAcquireHedge()).isTrue();
+        assertThat(policy.tryAcquireHedge()).isFalse();
+    }
+
+    @Test
+    void budgetAccumulatesAtMostTenHedges() {
+        HedgingPolicy policy = new HedgingPolicy(Duration.ofMillis(10), Duration.ofMillis(500), 0.95, 100, TIMEOUT);
+
+        for (int i = 0; i < 50; i++) {
+            policy.onRequest();
+        }
+
+        int hedges = 0;
+        while (policy.tryAcquireHedge()) {
+            hedges++;
+        }
+        assertThat(hedges).isEqualTo(10);
+    }
+}
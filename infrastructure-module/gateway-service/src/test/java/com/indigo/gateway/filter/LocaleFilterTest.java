@@ -0,0 +1,106 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.config.GatewayConfig;
+import com.indigo.gateway.service.SupportedLanguageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * LocaleFilter 语言环境优先级与 Accept-Language 协商
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class LocaleFilterTest {
+
+    private static final List<Locale> SUPPORTED = List.of(Locale.forLanguageTag("zh-CN"), Locale.forLanguageTag("en-US"));
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+    private SupportedLanguageService supportedLanguageService;
+    private LocaleFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        supportedLanguageService = mock(SupportedLanguageService.class);
+        when(supportedLanguageService.getSupportedLocales()).thenReturn(SUPPORTED);
+        filter = new LocaleFilter(new GatewayConfig(), supportedLanguageService);
+    }
+
+    @Test
+    void acceptLanguageFollowsQualityOrder() {
+        assertThat(resolve(acceptLanguage("en;q=0.5,zh-CN;q=0.9"))).isEqualTo(Locale.forLanguageTag("zh-CN"));
+    }
+
+    @Test
+    void acceptLanguageFallsBackToSupportedRegionOfSameLanguage() {
+        // en-GB 不在支持列表中，en 范围匹配 en-US，优先于权重更低的 zh
+        assertThat(resolve(acceptLanguage("en-GB,en;q=0.9,zh;q=0.8"))).isEqualTo(Locale.forLanguageTag("en-US"));
+    }
+
+    @Test
+    void unsupportedOrExcludedLanguagesUseDefault() {
+        assertThat(resolve(acceptLanguage("en;q=0,fr-FR"))).isEqualTo(Locale.forLanguageTag("zh-CN"));
+    }
+
+    @Test
+    void emptySupportedListTakesHighestWeightedLanguage() {
+        when(supportedLanguageService.getSupportedLocales()).thenReturn(List.of());
+
+        assertThat(resolve(acceptLanguage("*,fr-FR;q=0.9,en;q=0.8"))).isEqualTo(Locale.forLanguageTag("fr-FR"));
+    }
+
+    @Test
+    void supportedListChangeInvalidatesNegotiatedResults() {
+        when(supportedLanguageService.getSupportedLocales()).thenReturn(List.of(Locale.forLanguageTag("zh-CN")));
+        assertThat(resolve(acceptLanguage("en-US"))).isEqualTo(Locale.forLanguageTag("zh-CN"));
+
+        when(supportedLanguageService.getSupportedLocales()).thenReturn(List.copyOf(SUPPORTED));
+        assertThat(resolve(acceptLanguage("en-US"))).isEqualTo(Locale.forLanguageTag("en-US"));
+    }
+
+    @Test
+    void queryParameterThenHeaderTakePrecedenceOverAcceptLanguage() {
+        assertThat(resolve(MockServerHttpRequest.get("/mdm/language/list?lang=en_US")
+                .header("X-Locale", "ja-JP")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "zh-CN")))
+                .isEqualTo(Locale.US);
+        assertThat(resolve(MockServerHttpRequest.get("/mdm/language/list")
+                .header("X-Locale", "ja-JP")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "zh-CN")))
+                .isEqualTo(Locale.JAPAN);
+    }
+
+    @Test
+    void invalidLocaleUsesDefaultAndForwardsHeaders() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/mdm/language/list?lang=x"));
+
+        filter.filter(exchange, CHAIN).block();
+
+        assertThat(exchange.<Locale>getAttribute(LocaleFilter.EXCHANGE_ATTR_LOCALE)).isEqualTo(Locale.SIMPLIFIED_CHINESE);
+        HttpHeaders forwarded = RequestHeaderMutations.of(exchange).applyTo(exchange.getRequest()).getHeaders();
+        assertThat(forwarded.getFirst("X-Locale")).isEqualTo("zh_CN");
+        assertThat(forwarded.getFirst("X-Language")).isEqualTo("zh");
+    }
+
+    private Locale resolve(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, CHAIN).block();
+        return exchange.getAttribute(LocaleFilter.EXCHANGE_ATTR_LOCALE);
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> acceptLanguage(String value) {
+        return MockServerHttpRequest.get("/mdm/language/list").header(HttpHeaders.ACCEPT_LANGUAGE, value);
+    }
+}
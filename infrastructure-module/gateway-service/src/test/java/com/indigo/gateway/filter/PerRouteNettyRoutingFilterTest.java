@@ -0,0 +1,86 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.config.GatewayConfig;
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * PerRouteNettyRoutingFilter 按路由连接池的创建、复用与重建
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class PerRouteNettyRoutingFilterTest {
+
+    private final HttpClient globalClient = HttpClient.create();
+    private final GatewayConfig gatewayConfig = new GatewayConfig();
+    private final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+    private PerRouteNettyRoutingFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        filter = new PerRouteNettyRoutingFilter(globalClient, mock(ObjectProvider.class), new HttpClientProperties(),
+                gatewayConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void unconfiguredRouteUsesGlobalClient() {
+        assertThat(filter.routeHttpClient(route("mdm"), exchange)).isSameAs(globalClient);
+    }
+
+    @Test
+    void configuredRouteGetsOwnPoolWithRouteSettings() {
+        GatewayConfig.RouteHttpClientConfig config = new GatewayConfig.RouteHttpClientConfig();
+        config.setMaxConnections(50);
+        config.setConnectTimeoutMs(500);
+        config.setH2c(true);
+        gatewayConfig.getHttpClient().getRoutes().put("iam", config);
+
+        HttpClient client = filter.routeHttpClient(route("iam"), exchange);
+
+        assertThat(client).isNotSameAs(globalClient);
+        assertThat(client.configuration().connectionProvider().maxConnections()).isEqualTo(50);
+        assertThat(client.configuration().options()).containsEntry(ChannelOption.CONNECT_TIMEOUT_MILLIS, 500);
+        assertThat(client.configuration().protocols()).contains(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        assertThat(filter.routeHttpClient(route("iam"), exchange)).isSameAs(client);
+    }
+
+    @Test
+    void inPlaceConfigChangeRebuildsPool() {
+        GatewayConfig.RouteHttpClientConfig config = new GatewayConfig.RouteHttpClientConfig();
+        gatewayConfig.getHttpClient().getRoutes().put("iam", config);
+        HttpClient before = filter.routeHttpClient(route("iam"), exchange);
+
+        config.setMaxConnections(20);
+        HttpClient after = filter.routeHttpClient(route("iam"), exchange);
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.configuration().connectionProvider().maxConnections()).isEqualTo(20);
+    }
+
+    private static Route route(String id) {
+        return Route.async()
+                .id(id)
+                .uri("lb://" + id + "-service")
+                .predicate(ignored -> true)
+                .build();
+    }
+}
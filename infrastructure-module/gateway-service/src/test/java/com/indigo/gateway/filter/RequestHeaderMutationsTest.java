@@ -0,0 +1,86 @@
+package com.indigo.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RequestHeaderMutations 变更合并与 RequestHeaderMutationFilter 统一应用
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class RequestHeaderMutationsTest {
+
+    @Test
+    void ofReturnsSameAccumulatorForExchange() {
+        MockServerWebExchange exchange = exchange();
+
+        assertThat(RequestHeaderMutations.of(exchange)).isSameAs(RequestHeaderMutations.of(exchange));
+        assertThat(RequestHeaderMutations.of(exchange).isEmpty()).isTrue();
+    }
+
+    @Test
+    void laterSetOrRemoveOverridesEarlierMutation() {
+        MockServerWebExchange exchange = exchange();
+        RequestHeaderMutations.of(exchange)
+                .set("X-Request-ID", "a")
+                .remove("X-Request-ID")
+                .remove("X-Locale")
+                .set("X-Locale", "en_US");
+
+        HttpHeaders headers = route(exchange).getRequest().getHeaders();
+
+        assertThat(headers.containsKey("X-Request-ID")).isFalse();
+        assertThat(headers.get("X-Locale")).containsExactly("en_US");
+    }
+
+    @Test
+    void filterAppliesAllMutationsInOneRequest() {
+        MockServerWebExchange exchange = exchange();
+        RequestHeaderMutations.of(exchange).set("X-Language", "en");
+        RequestHeaderMutations.of(exchange).set("X-Request-ID", "r1").remove("X-User-Context");
+
+        ServerWebExchange routed = route(exchange);
+        HttpHeaders headers = routed.getRequest().getHeaders();
+
+        assertThat(headers.get("X-Language")).containsExactly("en");
+        assertThat(headers.get("X-Request-ID")).containsExactly("r1");
+        assertThat(headers.containsKey("X-User-Context")).isFalse();
+        assertThat(headers.getFirst(HttpHeaders.ACCEPT)).isEqualTo("application/json");
+        // 过滤器执行前原始请求不受影响
+        assertThat(exchange.getRequest().getHeaders().getFirst("X-User-Context")).isEqualTo("forged");
+    }
+
+    @Test
+    void filterPassesExchangeThroughWithoutMutations() {
+        MockServerWebExchange exchange = exchange();
+
+        assertThat(route(exchange)).isSameAs(exchange);
+    }
+
+    private static ServerWebExchange route(ServerWebExchange exchange) {
+        AtomicReference<ServerWebExchange> routed = new AtomicReference<>();
+        GatewayFilterChain chain = mutated -> {
+            routed.set(mutated);
+            return Mono.empty();
+        };
+        new RequestHeaderMutationFilter().filter(exchange, chain).block();
+        return routed.get();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/iam/user/info")
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .header("X-Locale", "zh_CN")
+                .header("X-User-Context", "forged"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.indigo.gateway.filter;
+
+import com.indigo.gateway.service.ResponseCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ResponseCacheGatewayFilterFactory 缓存命中、ETag 与按标签失效
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String PATH = "/geographic/country/list";
+    private static final String SUCCESS_BODY = "{\"code\":\"200\",\"data\":[{\"code\":\"CN\"}]}";
+
+    private ResponseCacheService cacheService;
+    private GatewayFilter filter;
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private String downstreamBody = SUCCESS_BODY;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cacheService = new ResponseCacheService(mock(ObjectProvider.class));
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId("mdm");
+        config.setPaths(List.of(PATH));
+        config.setTags(List.of("mdm:country"));
+        filter = new ResponseCacheGatewayFilterFactory(cacheService).apply(config);
+    }
+
+    @Test
+    void secondRequestIsServedFromCache() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get(PATH));
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get(PATH));
+
+        run(first);
+        run(second);
+
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(first.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(SUCCESS_BODY);
+        assertThat(second.getResponse().getHeaders().getETag()).isEqualTo(first.getResponse().getHeaders().getETag());
+        assertThat(second.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void matchingIfNoneMatchAnswers304() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get(PATH));
+        run(first);
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange conditional = exchange(MockServerHttpRequest.get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag));
+        run(conditional);
+
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conditional.getResponse().getHeaders().getETag()).isEqualTo(etag);
+    }
+
+    @Test
+    void failedResultsAreNotCached() {
+        downstreamBody = "{\"code\":\"MDM001\",\"message\":\"error\"}";
+
+        run(exchange(MockServerHttpRequest.get(PATH)));
+        run(exchange(MockServerHttpRequest.get(PATH)));
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void cacheIsIsolatedByLocaleAndPermissions() {
+        run(exchange(MockServerHttpRequest.get(PATH)));
+
+        MockServerWebExchange english = exchange(MockServerHttpRequest.get(PATH));
+        english.getAttributes().put(LocaleFilter.EXCHANGE_ATTR_LOCALE, Locale.US);
+        run(english);
+
+        MockServerWebExchange otherPermissions = exchange(MockServerHttpRequest.get(PATH));
+        otherPermissions.getAttributes().put(ResponseCacheGatewayFilterFactory.EXCHANGE_ATTR_PERMISSION_FINGERPRINT, "country:read");
+        run(otherPermissions);
+
+        assertThat(downstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void evictionByTagForcesReload() {
+        run(exchange(MockServerHttpRequest.get(PATH)));
+
+        cacheService.evictByTag("mdm:language");
+        run(exchange(MockServerHttpRequest.get(PATH)));
+        assertThat(downstreamCalls).hasValue(1);
+
+        cacheService.evictByTag("mdm:country");
+        run(exchange(MockServerHttpRequest.get(PATH)));
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void otherPathsAreNotCached() {
+        run(exchange(MockServerHttpRequest.get("/geographic/country/page")));
+        run(exchange(MockServerHttpRequest.get("/geographic/country/page")));
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    private void run(MockServerWebExchange exchange) {
+        GatewayFilterChain downstream = routed -> {
+            downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = routed.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] body = downstreamBody.getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+        filter.filter(exchange, downstream).block();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
@@ -0,0 +1,68 @@
+package com.indigo.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ResponseSnapshots 响应头白名单与 If-None-Match 比较
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class ResponseSnapshotsTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    @Test
+    void replayableHeadersKeepEtagAndDropPerRequestHeaders() {
+        HttpHeaders source = new HttpHeaders();
+        source.setContentType(MediaType.APPLICATION_JSON);
+        source.setETag(ETAG);
+        source.add(HttpHeaders.SET_COOKIE, "SESSION=1");
+        source.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "https://a.example");
+        source.add(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+
+        HttpHeaders replayable = ResponseSnapshots.replayableHeaders(source);
+
+        assertThat(replayable.getETag()).isEqualTo(ETAG);
+        assertThat(replayable.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(replayable).doesNotContainKeys(HttpHeaders.SET_COOKIE,
+                HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, HttpHeaders.VARY);
+    }
+
+    @Test
+    void notModifiedMatchesStrongWeakAndWildcardTags() {
+        assertThat(ResponseSnapshots.notModified(ifNoneMatch(ETAG), ETAG)).isTrue();
+        assertThat(ResponseSnapshots.notModified(ifNoneMatch("W/" + ETAG), ETAG)).isTrue();
+        assertThat(ResponseSnapshots.notModified(ifNoneMatch("\"other\", " + ETAG), ETAG)).isTrue();
+        assertThat(ResponseSnapshots.notModified(ifNoneMatch("*"), ETAG)).isTrue();
+    }
+
+    @Test
+    void notModifiedIsFalseWithoutMatchingTag() {
+        assertThat(ResponseSnapshots.notModified(ifNoneMatch("\"other\""), ETAG)).isFalse();
+        assertThat(ResponseSnapshots.notModified(MockServerHttpRequest.get("/").build(), ETAG)).isFalse();
+        assertThat(ResponseSnapshots.notModified(ifNoneMatch(ETAG), null)).isFalse();
+    }
+
+    @Test
+    void onlyResultCode200IsSuccess() {
+        assertThat(ResponseSnapshots.isSuccessResult(bytes("{\"code\":\"200\",\"data\":[]}"))).isTrue();
+        assertThat(ResponseSnapshots.isSuccessResult(bytes("{\"code\":\"IAM001\"}"))).isFalse();
+        assertThat(ResponseSnapshots.isSuccessResult(bytes("not json"))).isFalse();
+    }
+
+    private static MockServerHttpRequest ifNoneMatch(String value) {
+        return MockServerHttpRequest.get("/").header(HttpHeaders.IF_NONE_MATCH, value).build();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
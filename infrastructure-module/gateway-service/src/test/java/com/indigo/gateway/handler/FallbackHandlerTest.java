@@ -0,0 +1,104 @@
+package com.indigo.gateway.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.gateway.filter.LocaleFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FallbackHandler 预序列化回退响应体
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class FallbackHandlerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final HandlerStrategies STRATEGIES = HandlerStrategies.withDefaults();
+
+    private final FallbackHandler handler = new FallbackHandler(OBJECT_MAPPER);
+
+    @Test
+    void fallbackBodyIsValidJsonWithCurrentTimestamp() throws Exception {
+        long before = System.currentTimeMillis();
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/iam/user/info"));
+
+        JsonNode body = respond(exchange, handler::fallback);
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(body.path("code").asInt()).isEqualTo(503);
+        assertThat(body.path("message").asText()).isEqualTo("服务暂时不可用，请稍后重试");
+        assertThat(body.path("data").isNull()).isTrue();
+        assertThat(body.path("timestamp").asLong()).isBetween(before, System.currentTimeMillis());
+    }
+
+    @Test
+    void messageFollowsResolvedLocaleThenLocaleHeader() throws Exception {
+        MockServerWebExchange resolved = exchange(MockServerHttpRequest.get("/iam/auth/login"));
+        resolved.getAttributes().put(LocaleFilter.EXCHANGE_ATTR_LOCALE, Locale.US);
+        assertThat(respond(resolved, handler::authFallback).path("message").asText())
+                .isEqualTo("Authentication service is temporarily unavailable, please try again later");
+
+        MockServerWebExchange header = exchange(MockServerHttpRequest.get("/mdm/country/list").header("X-Locale", "en_GB"));
+        assertThat(respond(header, handler::businessFallback).path("message").asText())
+                .isEqualTo("Business service is temporarily unavailable, please try again later");
+    }
+
+    @Test
+    void unsupportedLanguageFallsBackToChinese() throws Exception {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/third-party/orders"));
+        exchange.getAttributes().put(LocaleFilter.EXCHANGE_ATTR_LOCALE, Locale.JAPAN);
+
+        assertThat(respond(exchange, handler::thirdPartyFallback).path("message").asText())
+                .isEqualTo("第三方服务暂时不可用，请稍后重试");
+    }
+
+    @Test
+    void sharedPrefixIsReusableAcrossResponses() throws Exception {
+        JsonNode first = respond(exchange(MockServerHttpRequest.get("/a")), handler::fallback);
+        JsonNode second = respond(exchange(MockServerHttpRequest.get("/b")), handler::fallback);
+
+        assertThat(second.path("message")).isEqualTo(first.path("message"));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private static JsonNode respond(MockServerWebExchange exchange,
+                                    Function<ServerRequest, Mono<ServerResponse>> fallback)
+            throws Exception {
+        ServerRequest request = ServerRequest.create(exchange, STRATEGIES.messageReaders());
+        fallback.apply(request)
+                .flatMap(response -> response.writeTo(exchange, new ServerResponse.Context() {
+                    @Override
+                    public List<HttpMessageWriter<?>> messageWriters() {
+                        return STRATEGIES.messageWriters();
+                    }
+
+                    @Override
+                    public List<ViewResolver> viewResolvers() {
+                        return STRATEGIES.viewResolvers();
+                    }
+                }))
+                .block();
+        return OBJECT_MAPPER.readTree(exchange.getResponse().getBodyAsString().block());
+    }
+}
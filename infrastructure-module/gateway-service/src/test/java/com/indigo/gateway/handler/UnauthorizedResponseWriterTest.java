@@ -0,0 +1,66 @@
+package com.indigo.gateway.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.gateway.constants.GatewayError;
+import com.indigo.gateway.service.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UnauthorizedResponseWriter 预序列化错误响应
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class UnauthorizedResponseWriterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UnauthorizedResponseWriter writer = new UnauthorizedResponseWriter(new GatewayMetrics(registry));
+
+    @Test
+    void writesUnauthorizedResultWithErrorCode() throws Exception {
+        MockServerWebExchange exchange = exchange();
+
+        writer.write(exchange, GatewayError.API_KEY_INVALID).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isNotNull()
+                .satisfies(type -> assertThat(type.isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue());
+        String body = exchange.getResponse().getBodyAsString().block();
+        assertThat(new ObjectMapper().readTree(body).path("code").asText()).isEqualTo("GW002");
+    }
+
+    @Test
+    void explicitStatusIsUsed() {
+        MockServerWebExchange exchange = exchange();
+
+        writer.write(exchange, GatewayError.API_KEY_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void cachedBodyIsReusedAcrossResponsesAndFailuresAreCounted() {
+        MockServerWebExchange first = exchange();
+        MockServerWebExchange second = exchange();
+
+        writer.write(first, GatewayError.API_KEY_MISSING).block();
+        writer.write(second, GatewayError.API_KEY_MISSING).block();
+
+        assertThat(second.getResponse().getBodyAsString().block())
+                .isNotEmpty()
+                .isEqualTo(first.getResponse().getBodyAsString().block());
+        assertThat(registry.get("synapse.gateway.auth.failures")
+                .tag("error", String.valueOf(GatewayError.API_KEY_MISSING)).counter().count()).isEqualTo(2);
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/third-party/orders"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.indigo.gateway.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AccessLogRingBuffer 多生产者 / 单消费者语义
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class AccessLogRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwoAndOfferFailsWhenFull() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(5);
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(8)).isFalse();
+
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(8)).isTrue();
+    }
+
+    @Test
+    void pollReturnsEntriesInOrderAcrossWrapAround() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(4);
+        List<Integer> polled = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+            if (i % 3 == 2) {
+                drainTo(buffer, polled);
+            }
+        }
+        drainTo(buffer, polled);
+
+        assertThat(polled).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void concurrentProducersDeliverEveryEntryOnceInPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        AccessLogRingBuffer<long[]> buffer = new AccessLogRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    long[] entry = {producer, i};
+                    while (!buffer.offer(entry)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        long[] next = new long[producers];
+        long received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        start.countDown();
+        while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+            long[] entry = buffer.poll();
+            if (entry == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertThat(entry[1]).isEqualTo(next[(int) entry[0]]);
+            next[(int) entry[0]]++;
+            received++;
+        }
+        executor.shutdown();
+
+        assertThat(received).isEqualTo((long) producers * perProducer);
+        assertThat(next).containsOnly(perProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    private static void drainTo(AccessLogRingBuffer<Integer> buffer, List<Integer> polled) {
+        Integer entry;
+        while ((entry = buffer.poll()) != null) {
+            polled.add(entry);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.indigo.gateway.service;
+
+import com.indigo.gateway.constants.GatewayError;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GatewayMetrics 按路由、状态码、错误码的指标
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class GatewayMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private GatewayMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new GatewayMetrics(registry);
+    }
+
+    @Test
+    void activeGaugeTracksInFlightRequestsPerRoute() {
+        metrics.requestStarted("iam");
+        metrics.requestStarted("iam");
+        metrics.requestStarted("mdm");
+        metrics.requestCompleted("iam", 200, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(registry.get("synapse.gateway.requests.active").tag("route", "iam").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("synapse.gateway.requests.active").tag("route", "mdm").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void latencyIsRecordedPerRouteAndStatusWithOutcome() {
+        metrics.requestStarted("iam");
+        metrics.requestCompleted("iam", 200, TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.requestStarted("iam");
+        metrics.requestCompleted("iam", 200, TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.requestStarted("iam");
+        metrics.requestCompleted("iam", 503, TimeUnit.MILLISECONDS.toNanos(1));
+
+        Timer ok = registry.get("synapse.gateway.requests").tags("route", "iam", "status", "200").timer();
+        assertThat(ok.getId().getTag("outcome")).isEqualTo("SUCCESS");
+        assertThat(ok.count()).isEqualTo(2);
+        assertThat(ok.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+        assertThat(registry.get("synapse.gateway.requests").tags("route", "iam", "status", "503").timer()
+                .getId().getTag("outcome")).isEqualTo("SERVER_ERROR");
+    }
+
+    @Test
+    void authFailuresAreCountedPerErrorCode() {
+        metrics.authFailure(GatewayError.API_KEY_INVALID);
+        metrics.authFailure(GatewayError.API_KEY_INVALID);
+        metrics.authFailure(GatewayError.API_KEY_MISSING);
+
+        assertThat(registry.get("synapse.gateway.auth.failures")
+                .tag("error", String.valueOf(GatewayError.API_KEY_INVALID)).counter().count()).isEqualTo(2);
+        assertThat(registry.get("synapse.gateway.auth.failures")
+                .tag("error", String.valueOf(GatewayError.API_KEY_MISSING)).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void routeIdFallsBackToUnknownWithoutMatchedRoute() {
+        assertThat(GatewayMetrics.routeId(MockServerWebExchange.from(MockServerHttpRequest.get("/"))))
+                .isEqualTo(GatewayMetrics.UNKNOWN_ROUTE);
+    }
+}
@@ -0,0 +1,121 @@
+package com.indigo.gateway.service;
+
+import com.indigo.gateway.config.GatewayConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * LeastLatencyLoadBalancer 按延迟和处理中请求数选择实例
+ *
+ * @author 史偕成
+ * @date 2025/12/02
+ */
+class LeastLatencyLoadBalancerTest {
+
+    private static final ServiceInstance FAST = new DefaultServiceInstance("fast", "iam-service", "10.0.0.1", 8080, false);
+    private static final ServiceInstance SLOW = new DefaultServiceInstance("slow", "iam-service", "10.0.0.2", 8080, false);
+
+    private final List<ServiceInstance> instances = new ArrayList<>(List.of(FAST, SLOW));
+    private LeastLatencyLoadBalancer loadBalancer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(supplier.get(any())).thenAnswer(invocation -> Flux.just(List.copyOf(instances)));
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        loadBalancer = new LeastLatencyLoadBalancer("iam-service", provider, new GatewayConfig());
+    }
+
+    @Test
+    void prefersInstanceWithLowerLatency() {
+        call(FAST, 10, CompletionContext.Status.SUCCESS);
+        call(SLOW, 200, CompletionContext.Status.SUCCESS);
+
+        assertThat(chooseMany(100)).containsOnly(FAST);
+    }
+
+    @Test
+    void failuresArePenalized() {
+        call(FAST, 10, CompletionContext.Status.FAILED);
+        call(SLOW, 200, CompletionContext.Status.SUCCESS);
+
+        // 失败按 failure-penalty-ms（5s）计入延迟
+        assertThat(chooseMany(100)).containsOnly(SLOW);
+    }
+
+    @Test
+    void inflightRequestsRaiseCost() {
+        call(FAST, 50, CompletionContext.Status.SUCCESS);
+        call(SLOW, 60, CompletionContext.Status.SUCCESS);
+        for (int i = 0; i < 3; i++) {
+            loadBalancer.onStartRequest(request(), new DefaultResponse(FAST));
+        }
+
+        assertThat(chooseMany(100)).containsOnly(SLOW);
+    }
+
+    @Test
+    void unsampledInstanceStartsAtAverageLatency() {
+        call(SLOW, 200, CompletionContext.Status.SUCCESS);
+        ServiceInstance added = new DefaultServiceInstance("new", "iam-service", "10.0.0.3", 8080, false);
+        instances.set(0, added);
+        // 新实例按平均延迟（200ms）计算代价，处理中请求数计入后让给已有实例
+        loadBalancer.onStartRequest(request(), new DefaultResponse(added));
+
+        assertThat(chooseMany(100)).containsOnly(SLOW);
+    }
+
+    @Test
+    void emptyInstanceListHasNoServer() {
+        instances.clear();
+
+        assertThat(loadBalancer.choose(request()).block().hasServer()).isFalse();
+    }
+
+    private List<ServiceInstance> chooseMany(int times) {
+        List<ServiceInstance> chosen = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            chosen.add(loadBalancer.choose(request()).block().getServer());
+        }
+        return chosen;
+    }
+
+    /**
+     * 模拟一次经负载均衡的调用：开始时处理中 +1，完成时按耗时反馈
+     */
+    private void call(ServiceInstance instance, long millis, CompletionContext.Status status) {
+        Request<RequestDataContext> request = request();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        request.getContext().setRequestStartTime(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis));
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                status, request, response, null));
+    }
+
+    private static Request<RequestDataContext> request() {
+        return new DefaultRequest<>(new RequestDataContext());
+    }
+}